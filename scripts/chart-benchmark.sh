@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# 图表构建基准：在同一个服务器进程中依次对每种已注册的图表类型调用addChart，
+# 预热后统计每次调用的往返时间（毫秒），输出中位数、P90和每秒构建数
+# 每种图表类型前新建演示文稿，避免幻灯片上的形状累积影响后面的类型
+#
+# 用法: scripts/chart-benchmark.sh [每种类型的测量次数，默认50] [每个系列的数据点数，默认12]
+
+set -euo pipefail
+
+RUNS=${1:-50}
+POINTS=${2:-12}
+WARMUP=10
+CHART_TYPES="COLUMN BAR LINE AREA SCATTER PIE DOUGHNUT STACKED_COLUMN STACKED_BAR STACKED_AREA COMBO"
+TARGET_DIR="$(cd "$(dirname "$0")/.." && pwd)/target"
+JAR="$TARGET_DIR/pptagent-0.0.1-SNAPSHOT-jar-with-dependencies.jar"
+
+INITIALIZE='{"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"chart-benchmark","version":"1.0"}}}'
+INITIALIZED='{"jsonrpc":"2.0","method":"notifications/initialized"}'
+
+if [[ ! -f "$JAR" ]]; then
+    echo "找不到 $JAR，请先执行 mvn package" >&2
+    exit 1
+fi
+
+# 生成类别和两个系列的数据（散点图中类别作为X值，使用数字）
+CATEGORIES=$(seq -s, 1 "$POINTS" | sed 's/[0-9]\+/"&"/g')
+SERIES_A=$(seq -s, 1 "$POINTS")
+SERIES_B=$(seq -s, 2 2 $((POINTS * 2)))
+
+coproc SERVER { exec java -jar "$JAR" --fast-start 2>/dev/null; }
+trap 'kill "$SERVER_PID" 2>/dev/null || true' EXIT
+
+NEXT_ID=2
+
+# 发送一次工具调用并等待响应，往返时间（毫秒，保留两位小数）写入CALL_MS
+# 需在当前shell中调用，不能放在$(...)中：子shell中递增的NEXT_ID会丢失，之后的请求会重复使用同一个id
+# 参数: 工具名 参数JSON
+call_tool() {
+    local name=$1 arguments=$2 id=$NEXT_ID line start end
+    NEXT_ID=$((NEXT_ID + 1))
+    start=${EPOCHREALTIME/./}
+    printf '{"jsonrpc":"2.0","id":%d,"method":"tools/call","params":{"name":"%s","arguments":%s}}\n' \
+        "$id" "$name" "$arguments" >&"${SERVER[1]}"
+    while IFS= read -r line <&"${SERVER[0]}"; do
+        if [[ "$line" == *"\"id\":$id,"* || "$line" == *"\"id\":$id}"* ]]; then
+            break
+        fi
+    done
+    end=${EPOCHREALTIME/./}
+    if [[ "$line" == *'success=false'* || "$line" == *'"isError":true'* ]]; then
+        echo "调用${name}失败: $line" >&2
+        exit 1
+    fi
+    CALL_MS=$(awk -v d=$((end - start)) 'BEGIN { printf "%.2f", d / 1000 }')
+}
+
+printf '%s\n%s\n' "$INITIALIZE" "$INITIALIZED" >&"${SERVER[1]}"
+IFS= read -r line <&"${SERVER[0]}"
+
+echo "每种图表类型预热${WARMUP}次、测量${RUNS}次，每个系列${POINTS}个数据点"
+printf '%-16s %10s %10s %10s\n' "图表类型" "中位数ms" "P90 ms" "次/秒"
+for type in $CHART_TYPES; do
+    call_tool createPresentation '{}'
+    chart_args=$(printf '{"chartType":"%s","x":40,"y":40,"width":480,"height":320,"title":"基准","categories":[%s],"seriesLabels":["A","B"],"seriesData":[[%s],[%s]],"slideIndex":0}' \
+        "$type" "$CATEGORIES" "$SERIES_A" "$SERIES_B")
+    for ((i = 0; i < WARMUP; i++)); do
+        call_tool addChart "$chart_args"
+    done
+    times=()
+    for ((i = 0; i < RUNS; i++)); do
+        call_tool addChart "$chart_args"
+        times+=("$CALL_MS")
+    done
+    printf '%s\n' "${times[@]}" | sort -n | awk -v type="$type" '
+        { a[NR] = $1; sum += $1 }
+        END { printf "%-16s %10.2f %10.2f %10.1f\n", type, a[int((NR + 1) / 2)], a[int(NR * 0.9 + 0.5)], NR * 1000 / sum }'
+done
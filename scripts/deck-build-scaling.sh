@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# 并行构建扩展性基准：用buildPresentationFromSpec构建同一份多张幻灯片的描述，
+# 依次限制JVM可用核数并设置相同的parallelism，输出构建耗时（服务端elapsedMs）和相对单线程的加速比
+#
+# 用法: scripts/deck-build-scaling.sh [幻灯片数，默认200] [核数列表，默认"1 2 4 8 16"]
+
+set -euo pipefail
+
+SLIDES=${1:-200}
+CORES=${2:-"1 2 4 8 16"}
+TARGET_DIR="$(cd "$(dirname "$0")/.." && pwd)/target"
+JAR="$TARGET_DIR/pptagent-0.0.1-SNAPSHOT-jar-with-dependencies.jar"
+
+INITIALIZE='{"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"deck-build-scaling","version":"1.0"}}}'
+INITIALIZED='{"jsonrpc":"2.0","method":"notifications/initialized"}'
+
+if [[ ! -f "$JAR" ]]; then
+    echo "找不到 $JAR，请先执行 mvn package" >&2
+    exit 1
+fi
+
+# 生成幻灯片描述：每张包含标题、形状、表格和图表
+# 参数: 幻灯片数
+slides_json() {
+    local count=$1 i sep=""
+    printf '['
+    for ((i = 0; i < count; i++)); do
+        printf '%s{"elements":[' "$sep"
+        printf '{"type":"text","x":40,"y":30,"width":640,"height":60,"text":"第%d页 季度经营数据"},' "$((i + 1))"
+        printf '{"type":"shape","x":40,"y":100,"width":200,"height":80,"text":"要点%d"},' "$((i + 1))"
+        printf '{"type":"table","x":40,"y":200,"width":300,"height":160,"data":[["指标","Q1","Q2"],["收入","%d","%d"],["成本","%d","%d"]]},' \
+            "$i" "$((i * 2))" "$((i + 3))" "$((i + 5))"
+        printf '{"type":"chart","chartType":"column","x":360,"y":200,"width":320,"height":200,"categories":["Q1","Q2","Q3","Q4"],"series":[{"name":"收入","values":[%d,%d,%d,%d]}]}' \
+            "$((i % 7 + 1))" "$((i % 5 + 2))" "$((i % 3 + 3))" "$((i % 11 + 1))"
+        printf ']}'
+        sep=","
+    done
+    printf ']'
+}
+
+SLIDES_JSON=$(slides_json "$SLIDES")
+
+# 启动一次服务器构建整份演示文稿，输出服务端报告的elapsedMs
+# 参数: 核数
+run_once() {
+    local cores=$1 request line
+    request=$(printf '{"jsonrpc":"2.0","id":2,"method":"tools/call","params":{"name":"buildPresentationFromSpec","arguments":{"spec":{"parallelism":%d,"slides":%s}}}}' \
+        "$cores" "$SLIDES_JSON")
+    coproc SERVER { exec java -XX:ActiveProcessorCount="$cores" -jar "$JAR" --fast-start 2>/dev/null; }
+    printf '%s\n%s\n%s\n' "$INITIALIZE" "$INITIALIZED" "$request" >&"${SERVER[1]}"
+    while IFS= read -r line <&"${SERVER[0]}"; do
+        if [[ "$line" == *'"id":2'* ]]; then
+            break
+        fi
+    done
+    kill "$SERVER_PID" 2>/dev/null || true
+    wait "$SERVER_PID" 2>/dev/null || true
+    if [[ "$line" =~ elapsedMs=([0-9]+) ]]; then
+        echo "${BASH_REMATCH[1]}"
+    else
+        echo "构建失败: $line" >&2
+        exit 1
+    fi
+}
+
+echo "构建${SLIDES}张幻灯片，本机可用核数 $(nproc)"
+baseline="" baseline_cores=""
+for cores in $CORES; do
+    if (( cores > $(nproc) )); then
+        echo "跳过 ${cores} 核：超过本机可用核数"
+        continue
+    fi
+    elapsed=$(run_once "$cores")
+    baseline=${baseline:-$elapsed}
+    baseline_cores=${baseline_cores:-$cores}
+    # 效率 = 加速比 / 核数倍数，接近100%即为线性扩展
+    awk -v b="$baseline" -v bc="$baseline_cores" -v e="$elapsed" -v c="$cores" \
+        'BEGIN { s = b / e; printf "%3d 核  %7d ms   加速比 %5.2fx   效率 %3d%%\n", c, e, s, s / (c / bc) * 100 }'
+done
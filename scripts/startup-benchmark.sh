@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# 启动时间基准：测量从启动JVM到收到第一个tools/list响应的时间（毫秒）
+# 依次对比：默认启动、--fast-start、--fast-start + AppCDS归档（需先执行 mvn -Pappcds package）
+#
+# 用法: scripts/startup-benchmark.sh [运行次数，默认5]
+
+set -euo pipefail
+
+RUNS=${1:-5}
+TARGET_DIR="$(cd "$(dirname "$0")/.." && pwd)/target"
+JAR="$TARGET_DIR/pptagent-0.0.1-SNAPSHOT-jar-with-dependencies.jar"
+JSA="$TARGET_DIR/pptagent.jsa"
+
+INITIALIZE='{"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"startup-benchmark","version":"1.0"}}}'
+INITIALIZED='{"jsonrpc":"2.0","method":"notifications/initialized"}'
+TOOLS_LIST='{"jsonrpc":"2.0","id":2,"method":"tools/list","params":{}}'
+
+if [[ ! -f "$JAR" ]]; then
+    echo "找不到 $JAR，请先执行 mvn package" >&2
+    exit 1
+fi
+
+# 启动一次服务器，输出到收到tools/list响应为止的毫秒数
+# 参数: JVM选项 程序参数（各为一个以空格分隔的字符串）
+run_once() {
+    local jvm_opts=$1 app_args=$2 start end line
+    start=$(date +%s%N)
+    # shellcheck disable=SC2086
+    coproc SERVER { exec java $jvm_opts -jar "$JAR" $app_args 2>/dev/null; }
+    printf '%s\n%s\n%s\n' "$INITIALIZE" "$INITIALIZED" "$TOOLS_LIST" >&"${SERVER[1]}"
+    while IFS= read -r line <&"${SERVER[0]}"; do
+        # 默认模式下工具是异步追加注册的，只统计包含工具的响应
+        if [[ "$line" == *'"id":2'* && "$line" == *'"name"'* ]]; then
+            break
+        elif [[ "$line" == *'"id":2'* ]]; then
+            printf '%s\n' "$TOOLS_LIST" >&"${SERVER[1]}"
+        fi
+    done
+    end=$(date +%s%N)
+    kill "$SERVER_PID" 2>/dev/null || true
+    wait "$SERVER_PID" 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+# 运行多次并输出中位数
+benchmark() {
+    local label=$1 jvm_opts=$2 app_args=$3
+    local times=()
+    for ((i = 0; i < RUNS; i++)); do
+        times+=("$(run_once "$jvm_opts" "$app_args")")
+    done
+    local median
+    median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+    printf '%-28s 中位数 %6s ms   (%s)\n' "$label" "$median" "${times[*]}"
+}
+
+echo "到首个tools/list响应的时间，每项运行${RUNS}次"
+benchmark "默认启动" "" ""
+benchmark "--fast-start" "" "--fast-start"
+if [[ -f "$JSA" ]]; then
+    benchmark "--fast-start + AppCDS" "-XX:SharedArchiveFile=$JSA" "--fast-start"
+else
+    echo "未找到 $JSA，跳过AppCDS对比（mvn -Pappcds package 生成）"
+fi
@@ -6,26 +6,35 @@ import io.modelcontextprotocol.server.McpAsyncServer;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import io.modelcontextprotocol.server.transport.HttpServletSseServerTransportProvider;
 import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import io.pptagent.logging.LoggingSetup;
 import io.pptagent.mcp.*;
+import io.pptagent.tools.PresentationHibernator;
 import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.PresentationPool;
 import io.pptagent.tools.background.BackgroundTools;
 import io.pptagent.tools.base.BaseTools;
 import io.pptagent.tools.shape.ShapeTools;
 import io.pptagent.tools.slides.SlideTools;
 import io.pptagent.tools.svg.SvgTools;
+import io.pptagent.tools.merge.MailMergeTools;
+import io.pptagent.tools.template.TemplateCache;
 import io.pptagent.tools.text.TextTools;
 import io.pptagent.tools.text.TextTools.AddTextBoxResult;
 import io.pptagent.tools.text.TextTools.SetFormattedTextResult;
+import io.pptagent.tools.warmup.WarmupTools;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.UnaryOperator;
 
 import lombok.Getter;
 import org.slf4j.Logger;
@@ -39,11 +48,26 @@ import reactor.core.publisher.Mono;
 public class App {
     private static final Logger log = LoggerFactory.getLogger(App.class);
     private static final String LOG_FILE_PATH = "pptagent.log";
+    private static final int DEFAULT_HTTP_PORT = 8080;
+    private static final String DEFAULT_HTTP_HOST = "127.0.0.1";
+    // HTTP模式下会话空闲超过该时间后释放其演示文稿
+    private static final long SESSION_IDLE_TIMEOUT_MINUTES = 30;
     // 添加获取工作目录的方法
     @Getter
     private static String workspace; // 添加工作目录变量
+    // 快速启动：延迟创建默认演示文稿，工具规范在服务器构建时一次性注册
+    private static boolean fastStart;
+    // 启动后在后台执行预热负载
+    private static boolean warmup;
+    // 恢复已退出进程在关闭时保存的演示文稿快照
+    private static boolean resume;
+    // 原始标准输出，System.out已被替换为写入日志的流
+    private static PrintStream rpcOut;
     
     public static void main(String[] args) {
+        // 所有模式共用异步日志管道，原始标准输出只留给STDIO传输
+        rpcOut = LoggingSetup.install(LOG_FILE_PATH);
+        
         // 获取WORKSPACE环境变量
         workspace = System.getenv("WORKSPACE");
         if (workspace == null || workspace.trim().isEmpty()) {
@@ -54,16 +78,23 @@ public class App {
         }
         
         // 解析命令行参数
+        List<String> argList = new ArrayList<>(Arrays.asList(args));
+        fastStart = argList.remove("--fast-start");
+        warmup = argList.remove("--warmup");
+        resume = argList.remove("--resume");
+        args = argList.toArray(new String[0]);
+        
         if (args.length > 0 && args[0].equalsIgnoreCase("demo")) {
-            // 重定向标准输出和标准错误到文件
-            redirectSystemStreams();
-            
-            // 配置SLF4J日志级别（如果使用SLF4J Simple）
-            System.setProperty("org.slf4j.simpleLogger.logFile", LOG_FILE_PATH);
-            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "INFO");
-            
             // 执行演示模式
             runDemo();
+        } else if (args.length > 0 && args[0].equalsIgnoreCase("http")) {
+            // 启动HTTP传输模式，多个客户端共享同一个服务器进程
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HTTP_PORT;
+            String host = args.length > 2 ? args[2] : DEFAULT_HTTP_HOST;
+            startHttpServer(host, port);
+        } else if (args.length > 0 && args[0].equalsIgnoreCase("cds-training")) {
+            // 生成类数据共享归档时的训练运行
+            runCdsTraining();
         } else {
             // 启动MCP服务器模式
             startMcpServer();
@@ -71,77 +102,147 @@ public class App {
     }
     
     /**
-     * 重定向System.out和System.err到文件
+     * 启动MCP服务器
+     */
+    private static void startMcpServer() {
+        log.info("正在启动PPT-Agent MCP服务器...");
+        
+        // 自动创建一个新的演示文稿
+        initDefaultPresentation();
+        
+        // 创建传输提供者（使用STDIO）
+        StdioServerTransportProvider transportProvider =
+            new StdioServerTransportProvider(new ObjectMapper(), System.in, rpcOut);
+        
+        // 创建异步服务器并注册各种PPT操作工具，调用在全局演示文稿的编辑锁内串行执行
+        createServer(transportProvider, SessionBinding::serialize, UnaryOperator.identity());
+        startWarmupIfEnabled();
+        
+        log.info("PPT-Agent MCP服务器已启动，JVM启动后{}ms，按Ctrl+C停止服务",
+            ManagementFactory.getRuntimeMXBean().getUptime());
+        
+        awaitShutdown();
+    }
+    
+    /**
+     * 启动HTTP传输的MCP服务器
+     * 每个客户端连接绑定独立的演示文稿，连接之间互不影响
      */
-    private static void redirectSystemStreams() {
+    private static void startHttpServer(String host, int port) {
+        log.info("正在以HTTP模式启动PPT-Agent MCP服务器...");
+        
+        // 全局演示文稿仍然保留，供批量生成等不依赖会话的功能使用
+        initDefaultPresentation();
+        
+        HttpServletSseServerTransportProvider transportProvider =
+            HttpTransportServer.createTransportProvider(new ObjectMapper());
+        
+        // 工具调用期间绑定所属会话的演示文稿
+        SessionBinding sessionBinding = new SessionBinding(SESSION_IDLE_TIMEOUT_MINUTES);
+        McpAsyncServer server = createServer(transportProvider, sessionBinding::bind, sessionBinding::bindResource);
+        startWarmupIfEnabled();
+        
         try {
-            // 创建日志目录（如果不存在）
-            File logFile = new File(LOG_FILE_PATH);
-            if (!logFile.exists()) {
-                logFile.getParentFile().mkdirs();
-            }
-            
-            // 创建输出流
-            FileOutputStream fileOutputStream = new FileOutputStream(logFile, true);
-            PrintStream printStream = new PrintStream(fileOutputStream);
-            
-            // 备份原始输出流（在需要时可以恢复）
-            PrintStream originalOut = System.out;
-            PrintStream originalErr = System.err;
-            
-            // 重定向除System.in以外的流（保留标准输入用于JSON-RPC通信）
-            System.setOut(new SpecialPrintStream(printStream, originalOut));
-            System.setErr(printStream);
-            
-            // 记录重定向开始
-            printStream.println("=== 日志开始 - " + new java.util.Date() + " ===");
+            HttpTransportServer httpServer = HttpTransportServer.start(transportProvider, host, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.closeGracefully().block();
+                httpServer.stop();
+                sessionBinding.close();
+            }));
         } catch (Exception e) {
-            System.err.println("无法重定向输出流: " + e.getMessage());
-            e.printStackTrace();
+            log.error("HTTP服务器启动失败: {}", e.getMessage());
+            System.exit(1);
         }
+        
+        log.info("PPT-Agent MCP服务器已启动（HTTP），JVM启动后{}ms，按Ctrl+C停止服务",
+            ManagementFactory.getRuntimeMXBean().getUptime());
+        
+        awaitShutdown();
     }
     
     /**
-     * 特殊的PrintStream类，用于区分JSON-RPC消息和普通日志
+     * 创建异步服务器并注册所有工具和资源
+     * 快速启动模式下工具规范随服务器一起构建，服务开始时即可响应tools/list，无需逐个追加注册
      */
-    private static class SpecialPrintStream extends PrintStream {
-        private final PrintStream originalOut;
+    private static McpAsyncServer createServer(McpServerTransportProvider transportProvider,
+                                               UnaryOperator<McpServerFeatures.AsyncToolSpecification> decorator,
+                                               UnaryOperator<McpServerFeatures.AsyncResourceSpecification> resourceDecorator) {
+        McpServer.AsyncSpecification spec = McpServer.async(transportProvider)
+            .serverInfo("ppt-agent", "1.0.0")
+            .capabilities(McpSchema.ServerCapabilities.builder()
+                .tools(true) // 启用工具支持
+                .resources(false, true) // 发布幻灯片资源，新增幻灯片时通知资源列表变化
+                .logging() // 进度和修改推送通过日志消息通知发送
+                .build())
+            .resources(ResourceRegistrar.createResourceSpecifications(resourceDecorator))
+            .resourceTemplates(ResourceRegistrar.createResourceTemplates());
         
-        public SpecialPrintStream(PrintStream logStream, PrintStream originalOut) {
-            super(logStream);
-            this.originalOut = originalOut;
+        if (fastStart) {
+            List<McpServerFeatures.AsyncToolSpecification> tools = createAllToolSpecifications(decorator);
+            log.info("已预先构建{}个工具规范", tools.size());
+            McpAsyncServer server = spec.tools(tools).build();
+            ResourceRegistrar.attach(server);
+            return server;
         }
         
-        @Override
-        public void println(String x) {
-            // 检查是否为JSON-RPC消息（通常以{开头）
-            if (x != null && (x.startsWith("{") || x.startsWith("Content-Type:"))) {
-                // JSON-RPC消息直接发送到原始输出流
-                originalOut.println(x);
-            } else {
-                // 其他消息写入日志文件
-                super.println(x);
-            }
+        McpAsyncServer server = spec.build();
+        ResourceRegistrar.attach(server);
+        registerAllTools(server, decorator)
+            .doOnSuccess(v -> log.info("所有工具注册成功"))
+            .doOnError(e -> log.error("工具注册失败: {}", e.getMessage()))
+            .subscribe();
+        return server;
+    }
+    
+    /**
+     * 启用预热时在后台启动预热，不阻塞工具调用
+     */
+    private static void startWarmupIfEnabled() {
+        if (warmup) {
+            WarmupTools.start();
+            log.info("已在后台启动预热");
         }
-        
-        @Override
-        public void print(String s) {
-            // 同样区分JSON-RPC消息
-            if (s != null && (s.startsWith("{") || s.startsWith("Content-Type:"))) {
-                originalOut.print(s);
-            } else {
-                super.print(s);
+    }
+    
+    /**
+     * 训练运行：走一遍启动路径中的类加载（Aspose、工具规范、JSON序列化）后退出，
+     * 配合-XX:ArchiveClassesAtExit生成类数据共享归档
+     */
+    private static void runCdsTraining() {
+        long start = System.currentTimeMillis();
+        try {
+            BaseTools.createPresentation();
+            SlideTools.addSlide("BLANK");
+            List<McpServerFeatures.AsyncToolSpecification> tools = createAllToolSpecifications(UnaryOperator.identity());
+            ObjectMapper mapper = new ObjectMapper();
+            for (McpServerFeatures.AsyncToolSpecification tool : tools) {
+                mapper.writeValueAsString(tool.tool());
             }
+            log.info("训练运行完成: {}个工具，耗时{}ms", tools.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("训练运行失败: {}", e.getMessage());
+        } finally {
+            PresentationManager.getInstance().dispose();
         }
+        System.exit(0);
     }
     
     /**
-     * 启动MCP服务器
+     * 创建默认演示文稿并注册释放资源的关闭钩子
+     * 以--resume启动且存在上次关闭时保存的快照时不再新建，首次使用时从快照恢复
      */
-    private static void startMcpServer() {
-        log.info("正在启动PPT-Agent MCP服务器...");
+    private static void initDefaultPresentation() {
+        if (PresentationHibernator.start(resume)) {
+            registerShutdownHook();
+            return;
+        }
+        if (fastStart) {
+            // 首个工具调用使用演示文稿时才创建
+            PresentationManager.getInstance().enableLazyInit();
+            registerShutdownHook();
+            return;
+        }
         
-        // 自动创建一个新的演示文稿
         boolean createResult = BaseTools.createPresentation();
         if (createResult) {
             log.info("已自动创建新的演示文稿");
@@ -155,35 +256,32 @@ public class App {
             }
             
             // 启动服务器前注册一个关闭钩子，以便在服务器关闭时释放资源
-            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-                log.info("正在关闭PPT-Agent，释放资源...");
-                PresentationManager.getInstance().dispose();
-                log.info("资源已释放");
-            }));
+            registerShutdownHook();
         } else {
             log.error("自动创建演示文稿失败");
         }
-        
-        // 创建传输提供者（使用STDIO）
-        StdioServerTransportProvider transportProvider = new StdioServerTransportProvider(new ObjectMapper());
-        
-        // 创建异步服务器
-        McpAsyncServer server = McpServer.async(transportProvider)
-            .serverInfo("ppt-agent", "1.0.0")
-            .capabilities(McpSchema.ServerCapabilities.builder()
-                .tools(true) // 启用工具支持
-                .build())
-            .build();
-            
-        // 注册各种PPT操作工具
-        registerAllTools(server)
-            .doOnSuccess(v -> log.info("所有工具注册成功"))
-            .doOnError(e -> log.error("工具注册失败: {}", e.getMessage()))
-            .subscribe();
-        
-        log.info("PPT-Agent MCP服务器已启动，按Ctrl+C停止服务");
-        
-        // 阻塞主线程，保持服务器运行
+    }
+    
+    /**
+     * 注册释放资源的关闭钩子
+     */
+    private static void registerShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            log.info("正在关闭PPT-Agent，释放资源...");
+            // 先将全局演示文稿保存为快照，避免未保存的工作丢失
+            PresentationHibernator.shutdown();
+            PresentationManager.getInstance().dispose();
+            TemplateCache.clear();
+            MailMergeTools.shutdown();
+            PresentationPool.clear();
+            log.info("资源已释放");
+        }));
+    }
+    
+    /**
+     * 阻塞主线程，保持服务器运行
+     */
+    private static void awaitShutdown() {
         CountDownLatch latch = new CountDownLatch(1);
         try {
             latch.await();
@@ -195,7 +293,23 @@ public class App {
     /**
      * 注册所有工具
      */
-    private static Mono<Void> registerAllTools(McpAsyncServer server) {
+    private static Mono<Void> registerAllTools(McpAsyncServer server,
+                                               UnaryOperator<McpServerFeatures.AsyncToolSpecification> decorator) {
+        // 逐个注册工具
+        return Flux.fromIterable(createAllToolSpecifications(decorator))
+            .flatMap(toolSpec -> {
+                McpSchema.Tool tool = toolSpec.tool();
+                log.info("注册工具: {}", tool.name());
+                return server.addTool(toolSpec);
+            })
+            .then();
+    }
+    
+    /**
+     * 创建所有工具规范
+     */
+    private static List<McpServerFeatures.AsyncToolSpecification> createAllToolSpecifications(
+            UnaryOperator<McpServerFeatures.AsyncToolSpecification> decorator) {
         // 获取所有工具规范
         List<McpServerFeatures.AsyncToolSpecification> allTools = new ArrayList<>();
         
@@ -204,6 +318,9 @@ public class App {
         
         // 添加幻灯片工具
         allTools.addAll(SlideToolsRegistrar.createToolSpecifications());
+
+        // 添加模板工具
+        allTools.addAll(TemplateToolsRegistrar.createToolSpecifications());
         
         // 添加背景工具
         allTools.addAll(BackgroundToolsRegistrar.createToolSpecifications());
@@ -220,6 +337,9 @@ public class App {
         // 添加图表工具
         allTools.addAll(ChartToolsRegistrar.createToolSpecifications());
 
+        // 添加表格工具
+        allTools.addAll(TableToolsRegistrar.createToolSpecifications());
+
         // 添加动画工具
         allTools.addAll(AnimationToolsRegistrar.createToolSpecifications());
 
@@ -228,15 +348,55 @@ public class App {
 
         // 添加信息工具
         allTools.addAll(InfoToolsRegistrar.createToolSpecifications());
+
+        // 添加演示文稿描述工具
+        allTools.addAll(DeckSpecToolsRegistrar.createToolSpecifications());
+
+        // 添加批量生成工具
+        allTools.addAll(MailMergeToolsRegistrar.createToolSpecifications());
+
+        // 添加预热工具
+        allTools.addAll(WarmupToolsRegistrar.createToolSpecifications());
+
+        // 添加休眠工具
+        allTools.addAll(HibernationToolsRegistrar.createToolSpecifications());
+
+        // 添加准入控制工具
+        allTools.addAll(AdmissionToolsRegistrar.createToolSpecifications());
+
+        // 添加调度工具
+        allTools.addAll(SchedulerToolsRegistrar.createToolSpecifications());
+
+        // 添加修改记录工具
+        allTools.addAll(ChangeFeedToolsRegistrar.createToolSpecifications());
+
+        // 添加幻灯片租约工具
+        allTools.addAll(LeaseToolsRegistrar.createToolSpecifications());
         
-        // 逐个注册工具
-        return Flux.fromIterable(allTools)
-            .flatMap(toolSpec -> {
-                McpSchema.Tool tool = toolSpec.tool();
-                log.info("注册工具: {}", tool.name());
-                return server.addTool(toolSpec);
-            })
-            .then();
+        // 绑定取消令牌，按堆内存余量准入，调用期间标记演示文稿正在使用，记录首次调用耗时，再应用调用方的包装
+        allTools.replaceAll(CancellationToolsRegistrar::track);
+        allTools.replaceAll(AdmissionToolsRegistrar::admit);
+        allTools.replaceAll(HibernationToolsRegistrar::markInUse);
+        allTools.replaceAll(WarmupToolsRegistrar::recordFirstCall);
+        // 只读工具按幻灯片版本缓存结果，修改类工具完成后递增版本
+        allTools.replaceAll(ReadResultCache::wrap);
+        // 修改类工具成功后记录带版本的修改并推送给订阅的客户端
+        allTools.replaceAll(ChangeFeedToolsRegistrar::publish);
+        // 修改类工具按ifMatch拒绝基于过期内容的写入，需在幂等键之内，重放的结果不再比较
+        allTools.replaceAll(EtagGuard::wrap);
+        // 修改被其他租约占用的幻灯片时拒绝执行
+        allTools.replaceAll(LeaseToolsRegistrar::guard);
+        // 重试的修改类调用按幂等键返回首次结果，需在会话绑定之内、准入和取消之外
+        allTools.replaceAll(IdempotencyGuard::wrap);
+        allTools.replaceAll(decorator);
+        // 最外层按通道和会话公平排队，排队期间不占用会话锁
+        allTools.replaceAll(SchedulerToolsRegistrar::schedule);
+        // 在工作线程中执行，STDIO读取线程不被长时间调用占住，可以接收cancelOperation
+        allTools.replaceAll(CancellationToolsRegistrar::dispatch);
+
+        // 取消工具不经过会话绑定和调度，在其他调用执行期间也能响应
+        allTools.addAll(CancellationToolsRegistrar.createToolSpecifications());
+        return allTools;
     }
     
     /**
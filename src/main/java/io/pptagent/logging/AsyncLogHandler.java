@@ -0,0 +1,210 @@
+package io.pptagent.logging;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * 异步日志处理器 - 基于有界环形缓冲区
+ * 调用线程只把日志记录放入缓冲区（缓冲区满时直接丢弃并计数，从不阻塞），
+ * 由单独的后台线程批量格式化并写入日志文件。日志从不写入标准输出。
+ */
+public final class AsyncLogHandler extends Handler {
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final int BATCH_SIZE = 256;
+    // 写入失败后重新打开日志文件前的等待时间
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final BlockingQueue<LogRecord> buffer;
+    private final String logFile;
+    private Writer writer;
+    private final Thread worker;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long reportedDropped;
+    private volatile boolean closed;
+
+    /**
+     * @param logFile 日志文件路径（追加写入）
+     * @param capacity 缓冲区容量（日志条数）
+     * @throws IOException 日志文件无法打开时抛出
+     */
+    public AsyncLogHandler(String logFile, int capacity) throws IOException {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.logFile = logFile;
+        this.writer = open(logFile);
+        this.worker = new Thread(this::drainLoop, "async-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (buffer.offer(record)) {
+            published.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void flush() {
+        // 由后台线程在缓冲区清空时刷新
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 已写入缓冲区的日志条数
+     */
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * 因缓冲区已满被丢弃的日志条数
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * 当前缓冲区中待写入的日志条数
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    private void drainLoop() {
+        List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (!closed) {
+                LogRecord first = buffer.poll(1, TimeUnit.SECONDS);
+                try {
+                    if (first != null) {
+                        batch.add(first);
+                        buffer.drainTo(batch, BATCH_SIZE - 1);
+                        write(batch);
+                        batch.clear();
+                    }
+                    if (buffer.isEmpty()) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    // 一次写入失败不能让后台线程退出，否则之后的日志全部被静默丢弃；
+                    // 未写入的这批日志计入丢弃数，等待片刻后重新打开日志文件继续写入
+                    dropped.addAndGet(batch.size());
+                    batch.clear();
+                    reportError("写入日志失败，将重新打开日志文件: " + logFile, e, ErrorManager.WRITE_FAILURE);
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                    reopen();
+                }
+            }
+        } catch (InterruptedException e) {
+            // 关闭时退出循环，写完剩余日志
+        } finally {
+            try {
+                buffer.drainTo(batch);
+                write(batch);
+                writer.close();
+            } catch (IOException e) {
+                reportError("关闭日志文件失败", e, 0);
+            }
+        }
+    }
+
+    /**
+     * 关闭当前日志文件并重新打开，打开失败时保留原来的写入器，下次写入失败后再重试
+     */
+    private void reopen() {
+        try {
+            Writer reopened = open(logFile);
+            try {
+                writer.close();
+            } catch (IOException e) {
+                // 原文件已不可用，忽略关闭失败
+            }
+            writer = reopened;
+        } catch (IOException e) {
+            reportError("重新打开日志文件失败: " + logFile, e, ErrorManager.OPEN_FAILURE);
+        }
+    }
+
+    private static Writer open(String logFile) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(logFile, true), StandardCharsets.UTF_8));
+    }
+
+    private void write(List<LogRecord> batch) throws IOException {
+        long droppedNow = dropped.get();
+        if (droppedNow > reportedDropped) {
+            writer.write(TIME_FORMAT.format(Instant.now()) + " WARNING [logging] 日志缓冲区已满或写入失败，丢弃"
+                + (droppedNow - reportedDropped) + "条日志" + System.lineSeparator());
+            reportedDropped = droppedNow;
+        }
+        for (LogRecord record : batch) {
+            writer.write(format(record));
+        }
+    }
+
+    /**
+     * 在后台线程中格式化日志，调用线程不承担格式化开销
+     */
+    private static String format(LogRecord record) {
+        String message = record.getMessage();
+        Object[] params = record.getParameters();
+        if (message != null && params != null && params.length > 0 && message.contains("{0")) {
+            try {
+                message = MessageFormat.format(message, params);
+            } catch (IllegalArgumentException e) {
+                // 保留原始消息
+            }
+        }
+
+        StringBuilder line = new StringBuilder(128)
+            .append(TIME_FORMAT.format(record.getInstant()))
+            .append(' ').append(record.getLevel().getName())
+            .append(" [").append(record.getLoggerName()).append("] ")
+            .append(message)
+            .append(System.lineSeparator());
+        if (record.getThrown() != null) {
+            StringWriter stackTrace = new StringWriter();
+            record.getThrown().printStackTrace(new PrintWriter(stackTrace));
+            line.append(stackTrace);
+        }
+        return line.toString();
+    }
+}
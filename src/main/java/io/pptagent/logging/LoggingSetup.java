@@ -0,0 +1,99 @@
+package io.pptagent.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+/**
+ * 日志初始化 - 所有模式共用一条异步日志管道
+ * slf4j通过slf4j-jdk14桥接到java.util.logging，二者统一由{@link AsyncLogHandler}写入日志文件。
+ * 原始标准输出只留给STDIO传输使用，System.out和System.err被替换为写入日志的流，
+ * 任何误用的print都不会混入JSON-RPC消息流。
+ */
+public final class LoggingSetup {
+
+    // 日志缓冲区容量，超出时丢弃新日志
+    private static final int BUFFER_CAPACITY = 8192;
+
+    private static AsyncLogHandler handler;
+
+    private LoggingSetup() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 安装异步日志管道并接管标准输出和标准错误
+     *
+     * @param logFile 日志文件路径
+     * @return 原始标准输出，供STDIO传输写JSON-RPC消息
+     */
+    public static synchronized PrintStream install(String logFile) {
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        try {
+            handler = new AsyncLogHandler(logFile, BUFFER_CAPACITY);
+            handler.setLevel(Level.ALL);
+
+            // 移除默认的同步控制台处理器
+            LogManager.getLogManager().reset();
+            Logger root = Logger.getLogger("");
+            root.setLevel(Level.INFO);
+            root.addHandler(handler);
+
+            System.setOut(new PrintStream(new LoggerOutputStream(Logger.getLogger("stdout"), Level.INFO),
+                true, StandardCharsets.UTF_8));
+            System.setErr(new PrintStream(new LoggerOutputStream(Logger.getLogger("stderr"), Level.WARNING),
+                true, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            originalErr.println("无法打开日志文件，保留默认日志输出: " + e.getMessage());
+        }
+        return originalOut;
+    }
+
+    /**
+     * 获取异步日志处理器，未安装时返回null
+     */
+    public static AsyncLogHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * 将写入的内容按行转为日志记录
+     */
+    private static final class LoggerOutputStream extends OutputStream {
+        private final Logger logger;
+        private final Level level;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+        LoggerOutputStream(Logger logger, Level level) {
+            this.logger = logger;
+            this.level = level;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (b == '\n') {
+                flushLine();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public void flush() {
+            // 只在换行时输出整行，避免print的片段被拆成多条日志
+        }
+
+        private void flushLine() {
+            if (line.size() > 0) {
+                logger.log(level, line.toString(StandardCharsets.UTF_8));
+                line.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.admission.AdmissionController;
+import io.pptagent.tools.admission.AdmissionController.AdmissionStats;
+import io.pptagent.tools.admission.AdmissionController.Permit;
+import io.pptagent.tools.admission.AdmissionController.RejectedException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 准入控制工具注册类
+ */
+public class AdmissionToolsRegistrar {
+
+    /**
+     * 创建所有准入控制工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createGetAdmissionStatsToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 包装工具规范，调用前按堆内存余量申请准入
+     * 被拒绝或调用中内存溢出时返回可重试的错误结果，不影响其他会话
+     *
+     * @param spec 原始工具规范
+     * @return 受准入控制的工具规范
+     */
+    public static McpServerFeatures.AsyncToolSpecification admit(McpServerFeatures.AsyncToolSpecification spec) {
+        String toolName = spec.tool().name();
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            // 工具处理函数同步完成实际工作，调用返回时即可释放预留的内存
+            try (Permit permit = AdmissionController.acquire(toolName, args)) {
+                return spec.call().apply(exchange, args);
+            } catch (RejectedException e) {
+                return retryableError(e.getMessage(), e.getRetryAfterMillis());
+            } catch (OutOfMemoryError e) {
+                AdmissionController.recordOutOfMemory(toolName);
+                return retryableError("服务器内存不足，" + toolName + "执行失败，请稍后重试", 5000);
+            }
+        });
+    }
+
+    /**
+     * 创建可重试的错误结果
+     */
+    private static Mono<McpSchema.CallToolResult> retryableError(String message, long retryAfterMillis) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("retryable", true);
+        response.put("retryAfterMs", retryAfterMillis);
+        response.put("message", message);
+
+        List<McpSchema.Content> content = List.of(
+            new TextContent(response.toString())
+        );
+        return Mono.just(new McpSchema.CallToolResult(content, true));
+    }
+
+    /**
+     * 创建获取准入统计工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetAdmissionStatsToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {}
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getAdmissionStats", "获取堆内存准入控制统计：最大堆、GC后堆占用、预留内存、放行/排队/降级/拒绝次数", schema),
+            (exchange, args) -> {
+                AdmissionStats result = AdmissionController.getStats();
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("maxHeapBytes", result.getMaxHeapBytes());
+                response.put("usedAfterGcBytes", result.getUsedAfterGcBytes());
+                response.put("reservedBytes", result.getReservedBytes());
+                response.put("inFlight", result.getInFlight());
+                response.put("admitted", result.getAdmitted());
+                response.put("queued", result.getQueued());
+                response.put("degraded", result.getDegraded());
+                response.put("rejected", result.getRejected());
+                response.put("outOfMemory", result.getOutOfMemory());
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
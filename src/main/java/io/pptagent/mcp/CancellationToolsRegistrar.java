@@ -0,0 +1,185 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.cancel.CancellationToken;
+import io.pptagent.tools.cancel.CancellationToken.CancelledException;
+import io.pptagent.tools.cancel.CancellationToken.OperationInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 取消与进度工具注册类
+ * 长时间运行的工具通过MCP日志消息通知（logger为progress）汇报进度，通知中包含操作ID，
+ * 客户端可用该ID调用cancelOperation中止操作。
+ * 工具处理函数同步执行，STDIO传输在唯一的读取线程上调用处理函数，因此所有被包装的工具都经
+ * {@link #dispatch}转到工作线程执行，读取线程才能在长时间调用期间继续接收cancelOperation。
+ */
+public class CancellationToolsRegistrar {
+    private static final Logger LOGGER = Logger.getLogger(CancellationToolsRegistrar.class.getName());
+
+    /**
+     * 创建所有取消工具规范
+     * 这些工具不访问演示文稿，需在会话绑定和调度之外注册，以便在其他调用执行期间响应
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createCancelOperationToolSpec());
+        tools.add(createGetActiveOperationsToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 包装工具规范，调用期间绑定取消令牌，并将进度作为日志消息通知发送给客户端
+     *
+     * @param spec 原始工具规范
+     * @return 可取消的工具规范
+     */
+    public static McpServerFeatures.AsyncToolSpecification track(McpServerFeatures.AsyncToolSpecification spec) {
+        String toolName = spec.tool().name();
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            // 工具处理函数同步完成实际工作，调用期间令牌绑定在当前线程
+            try (CancellationToken token = CancellationToken.begin(toolName,
+                    (operation, done, total, message) -> sendProgress(exchange, operation, done, total, message))) {
+                return spec.call().apply(exchange, args);
+            } catch (CancelledException e) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("cancelled", true);
+                response.put("operationId", e.getOperationId());
+                response.put("message", toolName + "已取消: " + e.getMessage());
+                // 处理函数已经执行了一部分，与其他失败一样以success=false报告，isError只用于执行前的拒绝
+                return Mono.just(new McpSchema.CallToolResult(List.of(new TextContent(response.toString())), false));
+            }
+        });
+    }
+
+    /**
+     * 包装工具规范，整个调用链（调度、会话绑定、取消令牌等）在工作线程中执行
+     * 需作为最外层包装，线程绑定的会话和取消令牌都在同一个工作线程中设置和清除；
+     * 传输线程只负责订阅，可以立即处理下一条请求
+     *
+     * @param spec 原始工具规范
+     * @return 在工作线程中执行的工具规范
+     */
+    public static McpServerFeatures.AsyncToolSpecification dispatch(McpServerFeatures.AsyncToolSpecification spec) {
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) ->
+            Mono.defer(() -> spec.call().apply(exchange, args))
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * 以日志消息通知发送进度
+     */
+    private static void sendProgress(McpAsyncServerExchange exchange, CancellationToken operation, double done,
+                                     double total, String message) {
+        if (exchange == null) {
+            return;
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("operationId", operation.getId());
+        data.put("tool", operation.getToolName());
+        data.put("progress", done);
+        data.put("total", total);
+        data.put("message", message);
+        exchange.loggingNotification(new McpSchema.LoggingMessageNotification(
+                McpSchema.LoggingLevel.INFO, "progress", data.toString()))
+            .subscribe(null, e -> LOGGER.log(Level.FINE, "发送进度通知失败", e));
+    }
+
+    /**
+     * 创建取消操作工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createCancelOperationToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "operationId": {
+                  "type": "string",
+                  "description": "要取消的操作ID，来自进度通知或getActiveOperations"
+                }
+              },
+              "required": ["operationId"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("cancelOperation", "取消正在执行的耗时操作（如导出PDF、构建整份演示文稿），操作在下一个检查点中止", schema),
+            (exchange, args) -> {
+                String operationId = (String) args.get("operationId");
+                boolean found = CancellationToken.cancel(operationId, "客户端取消");
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", found);
+                response.put("operationId", operationId);
+                response.put("message", found ? "已请求取消操作" : "操作不存在或已结束: " + operationId);
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+
+    /**
+     * 创建获取进行中操作工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetActiveOperationsToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {}
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getActiveOperations", "获取正在执行的工具调用及其操作ID、已执行时间和进度", schema),
+            (exchange, args) -> {
+                List<Map<String, Object>> operations = new ArrayList<>();
+                for (OperationInfo info : CancellationToken.getActiveOperations()) {
+                    Map<String, Object> operation = new HashMap<>();
+                    operation.put("operationId", info.getOperationId());
+                    operation.put("tool", info.getToolName());
+                    operation.put("elapsedMs", info.getElapsedMs());
+                    operation.put("progress", String.format("%.2f", info.getProgress()));
+                    operation.put("cancelled", info.isCancelled());
+                    operations.add(operation);
+                }
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("operations", operations);
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
@@ -0,0 +1,207 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.changes.ChangeFeed;
+import io.pptagent.tools.changes.ChangeFeed.Change;
+import io.pptagent.tools.changes.ChangeFeed.ChangesPage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import reactor.core.publisher.Mono;
+
+/**
+ * 修改记录工具注册类
+ * 修改类工具成功完成后记录一条带版本的修改，客户端可通过getChangesSince增量拉取；
+ * 调用过getChangesSince或读取过资源的客户端此后还会收到推送的日志消息通知（logger为changes），无需轮询。
+ */
+public class ChangeFeedToolsRegistrar {
+    private static final Logger LOGGER = Logger.getLogger(ChangeFeedToolsRegistrar.class.getName());
+
+    private static final int DEFAULT_LIMIT = 200;
+
+    // 各演示文稿的订阅客户端，会话结束后随垃圾回收自动移除
+    private static final Map<PresentationManager, Set<McpAsyncServerExchange>> SUBSCRIBERS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    static {
+        ChangeFeed.addListener(ChangeFeedToolsRegistrar::push);
+    }
+
+    /**
+     * 创建所有修改记录工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createGetChangesSinceToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 包装修改类工具规范，成功完成后记录修改
+     * 需在读取缓存之外执行，以便读取递增后的版本；需在幂等键之内执行，重放的结果不重复记录
+     *
+     * @param spec 原始工具规范
+     * @return 记录修改的工具规范，其余工具原样返回
+     */
+    public static McpServerFeatures.AsyncToolSpecification publish(McpServerFeatures.AsyncToolSpecification spec) {
+        String toolName = spec.tool().name();
+        if (!ReadResultCache.isMutating(toolName)) {
+            return spec;
+        }
+        String kind = kindOf(toolName);
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            PresentationManager manager = PresentationManager.getInstance();
+            Mono<McpSchema.CallToolResult> result = spec.call().apply(exchange, args);
+            // 工具处理函数同步完成实际工作，此时版本已经递增
+            long version = manager.getChangeCount();
+            int slideIndex = args != null && args.get("slideIndex") instanceof Number index ? index.intValue() : -1;
+            return result.doOnNext(value -> {
+                // 失败的调用（包括以success=false报告的失败）没有修改内容，不记录
+                if (ToolResults.succeeded(value)) {
+                    ChangeFeed.record(manager, new Change(version, kind, toolName, slideIndex, System.currentTimeMillis()));
+                }
+            });
+        });
+    }
+
+    /**
+     * 按工具名称推断修改类型
+     */
+    private static String kindOf(String toolName) {
+        return switch (toolName) {
+            case "addSlide", "addSlideFromTemplate", "duplicateSlide", "importSlides" -> "slideAdded";
+            case "createPresentation", "buildPresentationFromSpec" -> "deckReplaced";
+            case "setBackgroundColor", "setBackgroundSvg" -> "backgroundChanged";
+            case "setFormattedText" -> "textSet";
+            case "addAnimation", "addParagraphAnimation" -> "animationAdded";
+            case "updateChartData" -> "shapeModified";
+            default -> toolName.startsWith("add") ? "shapeAdded" : "modified";
+        };
+    }
+
+    /**
+     * 订阅演示文稿之后的修改推送
+     *
+     * @param manager 演示文稿
+     * @param exchange 客户端会话
+     */
+    static void subscribe(PresentationManager manager, McpAsyncServerExchange exchange) {
+        if (exchange == null) {
+            return;
+        }
+        SUBSCRIBERS.computeIfAbsent(manager,
+                m -> Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>())))
+            .add(exchange);
+    }
+
+    /**
+     * 向订阅该演示文稿的客户端推送修改
+     */
+    private static void push(PresentationManager manager, Change change) {
+        Set<McpAsyncServerExchange> subscribers = SUBSCRIBERS.get(manager);
+        if (subscribers == null) {
+            return;
+        }
+        List<McpAsyncServerExchange> targets;
+        synchronized (subscribers) {
+            targets = new ArrayList<>(subscribers);
+        }
+        String data = toMap(change).toString();
+        for (McpAsyncServerExchange exchange : targets) {
+            exchange.loggingNotification(new McpSchema.LoggingMessageNotification(
+                    McpSchema.LoggingLevel.INFO, "changes", data))
+                .subscribe(null, e -> LOGGER.log(Level.FINE, "推送修改通知失败", e));
+        }
+    }
+
+    private static Map<String, Object> toMap(Change change) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("version", change.version());
+        data.put("kind", change.kind());
+        data.put("tool", change.tool());
+        data.put("slideIndex", change.slideIndex());
+        data.put("timestamp", change.timestamp());
+        // 受影响的资源，客户端据此重新读取
+        data.put("uri", change.slideIndex() >= 0
+            ? ResourceRegistrar.slideUri(change.slideIndex()) : ResourceRegistrar.OUTLINE_URI);
+        return data;
+    }
+
+    /**
+     * 创建获取修改记录工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetChangesSinceToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "version": {
+                  "type": "integer",
+                  "minimum": 0,
+                  "description": "已同步的版本，首次调用传0，之后传上次返回的nextVersion"
+                },
+                "limit": {
+                  "type": "integer",
+                  "minimum": 1,
+                  "description": "最多返回的修改条数，默认200"
+                }
+              },
+              "required": ["version"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getChangesSince", "获取指定版本之后演示文稿的修改记录（添加幻灯片、添加形状、设置文本、修改背景等），并订阅之后的修改推送", schema),
+            (exchange, args) -> {
+                long version = ((Number) args.get("version")).longValue();
+                int limit = args.get("limit") instanceof Number number ? number.intValue() : DEFAULT_LIMIT;
+
+                PresentationManager manager = PresentationManager.getInstance();
+                subscribe(manager, exchange);
+                ChangesPage page = ChangeFeed.since(manager, version, limit);
+
+                List<Map<String, Object>> changes = new ArrayList<>();
+                for (Change change : page.changes()) {
+                    changes.add(toMap(change));
+                }
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("changes", changes);
+                response.put("latestVersion", page.latestVersion());
+                response.put("truncated", page.truncated());
+                if (page.truncated()) {
+                    response.put("nextVersion", page.latestVersion());
+                    response.put("message", "部分修改记录已被丢弃，请重新读取所有幻灯片后从nextVersion继续同步");
+                } else {
+                    // 只推进到已返回的最后一条修改，尚在提交中的修改在下次调用时返回
+                    response.put("nextVersion", changes.isEmpty() ? version : page.changes().get(changes.size() - 1).version());
+                }
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
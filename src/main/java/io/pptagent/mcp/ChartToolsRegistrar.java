@@ -5,6 +5,7 @@ import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
 import io.pptagent.tools.chart.ChartTools;
 import io.pptagent.tools.chart.ChartTools.ChartResult;
+import io.pptagent.tools.chart.ChartTools.UpdateChartResult;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -24,6 +25,7 @@ public class ChartToolsRegistrar {
         List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
         
         tools.add(createAddChartToolSpec());
+        tools.add(createUpdateChartDataToolSpec());
         
         return tools;
     }
@@ -38,8 +40,8 @@ public class ChartToolsRegistrar {
               "properties": {
                 "chartType": {
                   "type": "string",
-                  "enum": ["COLUMN", "PIE", "LINE"],
-                  "description": "图表类型：柱状图(COLUMN)、饼图(PIE)或折线图(LINE)"
+                  "enum": ["COLUMN", "BAR", "LINE", "AREA", "SCATTER", "PIE", "DOUGHNUT", "STACKED_COLUMN", "STACKED_BAR", "STACKED_AREA", "COMBO"],
+                  "description": "图表类型：柱状图(COLUMN)、条形图(BAR)、折线图(LINE)、面积图(AREA)、散点图(SCATTER，类别为X值)、饼图(PIE)、圆环图(DOUGHNUT)、堆积柱状图(STACKED_COLUMN)、堆积条形图(STACKED_BAR)、堆积面积图(STACKED_AREA)或组合图(COMBO，第一个系列为柱状图，其余为折线图)"
                 },
                 "x": {
                   "type": "number",
@@ -101,6 +103,16 @@ public class ChartToolsRegistrar {
                   "minimum": 0,
                   "description": "图表边框宽度"
                 },
+                "maxPoints": {
+                  "type": "integer",
+                  "minimum": 3,
+                  "description": "类别型图表（柱状、条形、折线、面积、堆积、组合）最多保留的数据点数，超出时在服务端降采样，建议不超过1000"
+                },
+                "downsampleMethod": {
+                  "type": "string",
+                  "enum": ["LTTB", "MINMAX"],
+                  "description": "降采样算法：LTTB(保留曲线形状，默认)或MINMAX(每个区间保留最小值和最大值)"
+                },
                 "slideIndex": {
                   "type": "integer",
                   "minimum": 0,
@@ -137,6 +149,9 @@ public class ChartToolsRegistrar {
                     float borderWidth = args.containsKey("borderWidth") ? 
                         ((Number) args.get("borderWidth")).floatValue() : 1.0f;
                     int slideIndex = ((Number) args.get("slideIndex")).intValue();
+                    Integer maxPoints = args.containsKey("maxPoints") ? 
+                        ((Number) args.get("maxPoints")).intValue() : null;
+                    String downsampleMethod = (String) args.get("downsampleMethod");
                     
                     // 创建图表参数
                     ChartTools.ChartParams params = ChartTools.ChartParams.builder()
@@ -148,6 +163,8 @@ public class ChartToolsRegistrar {
                         .backgroundColor(backgroundColor)
                         .borderColor(borderColor)
                         .borderWidth(borderWidth)
+                        .maxPoints(maxPoints)
+                        .downsampleMethod(downsampleMethod)
                         .build();
                     
                     // 创建系列数据列表
@@ -168,6 +185,10 @@ public class ChartToolsRegistrar {
                     response.put("success", result.isSuccess());
                     response.put("chartIndex", result.getChartIndex());
                     response.put("message", result.getMessage());
+                    if (result.getOriginalPointCount() > 0) {
+                        response.put("originalPointCount", result.getOriginalPointCount());
+                        response.put("retainedPointCount", result.getRetainedPointCount());
+                    }
                     
                     // 将结果转为JSON字符串
                     String resultJson = response.toString();
@@ -195,6 +216,102 @@ public class ChartToolsRegistrar {
         );
     }
     
+    /**
+     * 创建更新图表数据工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createUpdateChartDataToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "slideIndex": {
+                  "type": "integer",
+                  "minimum": 0,
+                  "description": "图表所在的幻灯片索引，从0开始"
+                },
+                "chartIndex": {
+                  "type": "integer",
+                  "minimum": 0,
+                  "description": "图表索引（addChart返回的chartIndex）"
+                },
+                "categories": {
+                  "type": "array",
+                  "items": {"type": "string"},
+                  "description": "新的类别标签列表"
+                },
+                "seriesLabels": {
+                  "type": "array",
+                  "items": {"type": "string"},
+                  "description": "新的系列标签列表"
+                },
+                "seriesData": {
+                  "type": "array",
+                  "items": {
+                    "type": "array",
+                    "items": {"type": "number"}
+                  },
+                  "description": "新的系列数据，二维数组，第一维是系列，第二维是该系列的值"
+                }
+              },
+              "required": ["slideIndex", "chartIndex", "categories", "seriesLabels", "seriesData"]
+            }
+            """;
+        
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("updateChartData", "原地更新已有图表的数据，只写入发生变化的单元格", schema),
+            (exchange, args) -> {
+                try {
+                    int slideIndex = ((Number) args.get("slideIndex")).intValue();
+                    int chartIndex = ((Number) args.get("chartIndex")).intValue();
+                    @SuppressWarnings("unchecked")
+                    List<String> categories = (List<String>) args.get("categories");
+                    @SuppressWarnings("unchecked")
+                    List<String> seriesLabels = (List<String>) args.get("seriesLabels");
+                    @SuppressWarnings("unchecked")
+                    List<List<Double>> seriesData = convertToDoubleList((List<List<Number>>) args.get("seriesData"));
+                    
+                    // 创建系列数据列表
+                    List<ChartTools.SeriesData> seriesDataList = new ArrayList<>();
+                    for (int i = 0; i < seriesLabels.size() && i < seriesData.size(); i++) {
+                        seriesDataList.add(ChartTools.SeriesData.builder()
+                            .name(seriesLabels.get(i))
+                            .values(seriesData.get(i))
+                            .build());
+                    }
+                    
+                    UpdateChartResult result = ChartTools.updateChartData(slideIndex, chartIndex, categories, seriesDataList);
+                    
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", result.isSuccess());
+                    response.put("changedCells", result.getChangedCells());
+                    response.put("message", result.getMessage());
+                    
+                    // 将结果转为JSON字符串
+                    String resultJson = response.toString();
+                    
+                    // 创建文本内容
+                    List<McpSchema.Content> content = List.of(
+                        new TextContent(resultJson)
+                    );
+                    
+                    // 使用内容列表创建调用结果
+                    return Mono.just(new McpSchema.CallToolResult(content, false));
+                } catch (Exception e) {
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("success", false);
+                    errorResponse.put("changedCells", 0);
+                    errorResponse.put("message", "更新图表数据失败: " + e.getMessage());
+                    
+                    List<McpSchema.Content> errorContent = List.of(
+                        new TextContent(errorResponse.toString())
+                    );
+                    
+                    return Mono.just(new McpSchema.CallToolResult(errorContent, false));
+                }
+            }
+        );
+    }
+    
     /**
      * 将Number类型的二维列表转换为Double类型的二维列表
      */
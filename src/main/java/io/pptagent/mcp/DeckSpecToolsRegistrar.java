@@ -0,0 +1,147 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.spec.DeckSpecExecutor;
+import io.pptagent.tools.spec.DeckSpecExecutor.BuildResult;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 演示文稿描述工具注册类
+ */
+public class DeckSpecToolsRegistrar {
+
+    /**
+     * 创建所有演示文稿描述工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createBuildPresentationFromSpecToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 创建从描述构建演示文稿工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createBuildPresentationFromSpecToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "spec": {
+                  "type": "object",
+                  "description": "演示文稿描述",
+                  "properties": {
+                    "newPresentation": {
+                      "type": "boolean",
+                      "description": "是否先创建新演示文稿，默认为true；为false时追加到当前演示文稿"
+                    },
+                    "styles": {
+                      "type": "object",
+                      "additionalProperties": {"type": "object"},
+                      "description": "命名样式，元素通过style引用，元素自身属性优先"
+                    },
+                    "slides": {
+                      "type": "array",
+                      "items": {
+                        "type": "object",
+                        "properties": {
+                          "layout": {
+                            "type": "string",
+                            "description": "布局类型(BLANK/TITLE/etc)，默认为BLANK"
+                          },
+                          "template": {
+                            "type": "object",
+                            "description": "从模板创建：{path, slideIndex 或 layoutName, values}"
+                          },
+                          "background": {
+                            "type": "string",
+                            "description": "背景颜色，如#FFFFFF"
+                          },
+                          "elements": {
+                            "type": "array",
+                            "items": {
+                              "type": "object",
+                              "properties": {
+                                "type": {
+                                  "type": "string",
+                                  "enum": ["text", "shape", "line", "chart", "table", "image", "svg"],
+                                  "description": "元素类型"
+                                },
+                                "style": {"type": "string", "description": "引用的命名样式"},
+                                "x": {"type": "number"},
+                                "y": {"type": "number"},
+                                "width": {"type": "number"},
+                                "height": {"type": "number"}
+                              },
+                              "required": ["type"],
+                              "description": "其余属性与对应的单项工具一致：text/shape支持text(字符串或格式化文本数组)及fontName/fontSize/bold/italic/color，shape支持shape/fillColor/borderColor，line使用x1/y1/x2/y2/color/thickness，chart支持chartType/title/categories/series，table支持data或csvPath，image支持path或base64，svg支持svgContent"
+                            }
+                          }
+                        }
+                      }
+                    },
+                    "savePath": {
+                      "type": "string",
+                      "description": "构建完成后保存的路径，不设置则不保存"
+                    },
+                    "format": {
+                      "type": "string",
+                      "description": "保存格式(PPTX/PPT/PDF)，默认为PPTX"
+                    },
+                    "parallelism": {
+                      "type": "integer",
+                      "minimum": 0,
+                      "description": "并行构建的线程数，0表示按CPU核数，1为顺序构建；默认取DECK_BUILD_PARALLELISM（1）。包含模板幻灯片时按顺序构建"
+                    }
+                  },
+                  "required": ["slides"]
+                }
+              },
+              "required": ["spec"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("buildPresentationFromSpec",
+                "根据声明式描述一次性构建整份演示文稿：先整体校验并编译（样式合并、颜色解析、图片去重、图表数据预构建），再在进程内执行", schema),
+            (exchange, args) -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> spec = (Map<String, Object>) args.get("spec");
+
+                BuildResult result = DeckSpecExecutor.build(spec);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", result.isSuccess());
+                response.put("slideCount", result.getSlideCount());
+                response.put("elementCount", result.getElementCount());
+                response.put("failedCount", result.getFailedCount());
+                response.put("errors", result.getErrors());
+                response.put("elapsedMs", result.getElapsedMs());
+                if (result.getSavedPath() != null) {
+                    response.put("savedPath", result.getSavedPath());
+                }
+                response.put("message", result.getMessage());
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
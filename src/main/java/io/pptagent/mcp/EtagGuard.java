@@ -0,0 +1,93 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.PresentationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 乐观并发 - 修改类工具按etag拒绝基于过期内容的写入
+ * 读取工具返回幻灯片的etag（getShapesInfo）和整个演示文稿的etag（getSlideCount）。修改类工具接受可选的ifMatch参数：
+ * 有slideIndex参数时与该幻灯片的etag比较，否则与整个演示文稿的etag比较，不一致说明读取之后已有其他调用修改，
+ * 直接返回冲突结果，调用方重新读取后再决定是否修改。多个客户端编辑同一演示文稿时无需互相加锁，
+ * 只有确实冲突的写入才会被拒绝。
+ */
+public final class EtagGuard {
+
+    public static final String IF_MATCH_ARGUMENT = "ifMatch";
+
+    private EtagGuard() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 包装修改类工具规范：在输入结构中加入ifMatch参数，etag不一致时拒绝执行
+     * 需在会话绑定之内执行，比较和修改在编辑锁内完成，之间不会插入其他修改
+     *
+     * @param spec 原始工具规范
+     * @return 支持ifMatch的工具规范，其余工具原样返回
+     */
+    public static McpServerFeatures.AsyncToolSpecification wrap(McpServerFeatures.AsyncToolSpecification spec) {
+        McpSchema.Tool tool = spec.tool();
+        if (!ReadResultCache.isMutating(tool.name())) {
+            return spec;
+        }
+        return new McpServerFeatures.AsyncToolSpecification(withIfMatchArgument(tool), (exchange, args) -> {
+            Object ifMatch = args != null ? args.get(IF_MATCH_ARGUMENT) : null;
+            if (!(ifMatch instanceof String expected) || expected.isEmpty()) {
+                return spec.call().apply(exchange, args);
+            }
+            PresentationManager manager = PresentationManager.getInstance();
+            // 会话绑定已持有编辑锁时重入，STDIO模式下在此获取
+            synchronized (manager.getEditLock()) {
+                String current = etagOf(manager, args);
+                if (!current.equals(expected)) {
+                    return conflict(expected, current);
+                }
+                return spec.call().apply(exchange, args);
+            }
+        });
+    }
+
+    /**
+     * 有slideIndex参数时为该幻灯片的etag，否则为整个演示文稿的etag
+     */
+    private static String etagOf(PresentationManager manager, Map<String, Object> args) {
+        if (args.get("slideIndex") instanceof Number slideIndex) {
+            return manager.getSlideVersion(slideIndex.intValue());
+        }
+        return String.valueOf(manager.getChangeCount());
+    }
+
+    /**
+     * 在工具输入结构中加入可选的ifMatch参数
+     */
+    private static McpSchema.Tool withIfMatchArgument(McpSchema.Tool tool) {
+        McpSchema.JsonSchema schema = tool.inputSchema();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        if (schema.properties() != null) {
+            properties.putAll(schema.properties());
+        }
+        properties.put(IF_MATCH_ARGUMENT, Map.of(
+            "type", "string",
+            "description", "可选的etag，来自getShapesInfo（修改单张幻灯片）或getSlideCount（其他修改），内容已被修改时拒绝执行"));
+        return new McpSchema.Tool(tool.name(), tool.description(), new McpSchema.JsonSchema(
+            schema.type(), properties, schema.required(), schema.additionalProperties()));
+    }
+
+    private static Mono<McpSchema.CallToolResult> conflict(String expected, String current) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("conflict", true);
+        response.put("expectedEtag", expected);
+        response.put("currentEtag", current);
+        response.put("message", "内容已被其他调用修改，请重新读取后再修改");
+        return Mono.just(new McpSchema.CallToolResult(List.of(new TextContent(response.toString())), true));
+    }
+}
@@ -0,0 +1,94 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.PresentationHibernator;
+import io.pptagent.tools.PresentationHibernator.HibernationStats;
+import io.pptagent.tools.PresentationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 休眠工具注册类
+ */
+public class HibernationToolsRegistrar {
+
+    /**
+     * 创建所有休眠工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createGetHibernationStatsToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 包装工具规范，调用期间标记当前演示文稿正在使用，避免被休眠
+     * 需在会话绑定之内执行，才能标记到所属会话的演示文稿
+     *
+     * @param spec 原始工具规范
+     * @return 标记使用状态的工具规范
+     */
+    public static McpServerFeatures.AsyncToolSpecification markInUse(McpServerFeatures.AsyncToolSpecification spec) {
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            PresentationManager manager = PresentationManager.getInstance();
+            // 工具处理函数同步完成实际工作，调用返回时已不再使用演示文稿
+            manager.beginUse();
+            try {
+                return spec.call().apply(exchange, args);
+            } finally {
+                manager.endUse();
+            }
+        });
+    }
+
+    /**
+     * 创建获取休眠统计工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetHibernationStatsToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {}
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getHibernationStats", "获取演示文稿休眠统计：内存中与休眠中的演示文稿数、休眠与恢复的次数和平均耗时、回收的内存", schema),
+            (exchange, args) -> {
+                HibernationStats result = PresentationHibernator.getStats();
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("idleThresholdMinutes", result.getIdleThresholdMinutes());
+                response.put("loaded", result.getLoaded());
+                response.put("hibernated", result.getHibernated());
+                response.put("hibernateCount", result.getHibernateCount());
+                response.put("avgHibernateMs", result.getAvgHibernateMs());
+                response.put("restoreCount", result.getRestoreCount());
+                response.put("avgRestoreMs", result.getAvgRestoreMs());
+                response.put("snapshotBytes", result.getSnapshotBytes());
+                response.put("reclaimedBytes", result.getReclaimedBytes());
+                response.put("heapUsage", String.format("%.2f", result.getHeapUsage()));
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
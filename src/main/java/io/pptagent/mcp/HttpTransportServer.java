@@ -0,0 +1,99 @@
+package io.pptagent.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.transport.HttpServletSseServerTransportProvider;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP传输服务器 - 使用内嵌Tomcat承载MCP的SSE传输
+ * 客户端通过GET {@value #SSE_ENDPOINT}建立SSE连接，通过POST {@value #MESSAGE_ENDPOINT}发送消息，
+ * 多个客户端可共享同一个已预热的服务器进程。
+ */
+public final class HttpTransportServer {
+    private static final Logger log = LoggerFactory.getLogger(HttpTransportServer.class);
+
+    public static final String SSE_ENDPOINT = "/sse";
+    public static final String MESSAGE_ENDPOINT = "/mcp/message";
+
+    // HTTP长连接保持时间，客户端两次消息之间复用同一TCP连接
+    private static final int KEEP_ALIVE_TIMEOUT_MS = 120_000;
+    private static final int MAX_KEEP_ALIVE_REQUESTS = -1;
+
+    private final Tomcat tomcat;
+
+    private HttpTransportServer(Tomcat tomcat) {
+        this.tomcat = tomcat;
+    }
+
+    /**
+     * 创建SSE传输提供者
+     *
+     * @param objectMapper JSON序列化器
+     * @return 传输提供者，同时也是处理HTTP请求的Servlet
+     */
+    public static HttpServletSseServerTransportProvider createTransportProvider(ObjectMapper objectMapper) {
+        return HttpServletSseServerTransportProvider.builder()
+            .objectMapper(objectMapper)
+            .sseEndpoint(SSE_ENDPOINT)
+            .messageEndpoint(MESSAGE_ENDPOINT)
+            .build();
+    }
+
+    /**
+     * 启动HTTP服务器
+     *
+     * @param transportProvider SSE传输提供者
+     * @param host 监听地址，默认只监听本机
+     * @param port 监听端口
+     * @return 已启动的服务器
+     * @throws Exception 启动失败时抛出
+     */
+    public static HttpTransportServer start(HttpServletSseServerTransportProvider transportProvider,
+                                            String host, int port) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        File baseDir = Files.createTempDirectory("pptagent-tomcat").toFile();
+        baseDir.deleteOnExit();
+        tomcat.setBaseDir(baseDir.getAbsolutePath());
+        tomcat.setHostname(host);
+
+        Connector connector = new Connector();
+        connector.setPort(port);
+        connector.setProperty("address", host);
+        connector.setProperty("keepAliveTimeout", String.valueOf(KEEP_ALIVE_TIMEOUT_MS));
+        connector.setProperty("maxKeepAliveRequests", String.valueOf(MAX_KEEP_ALIVE_REQUESTS));
+        // SSE连接由客户端主动关闭，不设置异步超时
+        connector.setAsyncTimeout(0);
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Wrapper wrapper = Tomcat.addServlet(context, "mcp", transportProvider);
+        wrapper.setAsyncSupported(true);
+        context.addServletMappingDecoded("/*", "mcp");
+
+        tomcat.start();
+        log.info("HTTP传输已启动: http://{}:{}{}", host, connector.getLocalPort(), SSE_ENDPOINT);
+        return new HttpTransportServer(tomcat);
+    }
+
+    /**
+     * 停止HTTP服务器
+     */
+    public void stop() {
+        try {
+            tomcat.stop();
+            tomcat.destroy();
+        } catch (LifecycleException e) {
+            log.warn("停止HTTP服务器失败: {}", e.getMessage());
+        }
+    }
+}
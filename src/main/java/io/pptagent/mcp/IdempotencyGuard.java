@@ -0,0 +1,159 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import reactor.core.publisher.Mono;
+
+/**
+ * 幂等键 - 重试的修改类工具调用直接返回首次调用的结果
+ * 修改类工具（名称不以get开头）接受可选的idempotencyKey参数。同一会话内相同工具和幂等键的调用只执行一次，
+ * 之后的重试直接返回缓存的结果，不会重复修改演示文稿（如重复添加形状）。
+ * 缓存按会话隔离，每个会话最多保留{@value #MAX_ENTRIES_PER_SESSION}条，
+ * 超过IDEMPOTENCY_TTL_MINUTES分钟（默认10）后失效；返回错误的调用不缓存，可以重试。
+ */
+public final class IdempotencyGuard {
+    private static final Logger LOGGER = Logger.getLogger(IdempotencyGuard.class.getName());
+
+    public static final String KEY_ARGUMENT = "idempotencyKey";
+    private static final int MAX_ENTRIES_PER_SESSION = 256;
+    private static final long DEFAULT_TTL_MINUTES = 10;
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(readTtlMinutes());
+
+    // 以MCP会话的exchange对象区分会话，会话结束后随垃圾回收自动移除
+    private static final Map<Object, Map<String, Entry>> SESSIONS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private IdempotencyGuard() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 缓存的调用结果
+     *
+     * @param arguments 首次调用的参数（不含幂等键），用于识别幂等键被用于不同参数
+     * @param result 首次调用的结果
+     * @param createdAt 缓存时间
+     */
+    private record Entry(Map<String, Object> arguments, Mono<McpSchema.CallToolResult> result, long createdAt) {}
+
+    /**
+     * 包装修改类工具规范：在输入结构中加入idempotencyKey参数，并按幂等键缓存结果
+     * 需在会话绑定之内执行，同一会话的调用串行，首次调用完成后重试才会到达
+     *
+     * @param spec 原始工具规范
+     * @return 支持幂等键的工具规范，读取类工具原样返回
+     */
+    public static McpServerFeatures.AsyncToolSpecification wrap(McpServerFeatures.AsyncToolSpecification spec) {
+        McpSchema.Tool tool = spec.tool();
+        if (tool.name().startsWith("get")) {
+            return spec;
+        }
+        return new McpServerFeatures.AsyncToolSpecification(withKeyArgument(tool), (exchange, args) -> {
+            Object key = args != null ? args.get(KEY_ARGUMENT) : null;
+            if (!(key instanceof String idempotencyKey) || idempotencyKey.isEmpty()) {
+                return spec.call().apply(exchange, args);
+            }
+            Map<String, Object> arguments = new HashMap<>(args);
+            arguments.remove(KEY_ARGUMENT);
+            String cacheKey = tool.name() + ":" + idempotencyKey;
+
+            Map<String, Entry> entries = SESSIONS.computeIfAbsent(exchange, session -> newSessionCache());
+            synchronized (entries) {
+                evictExpired(entries);
+                Entry entry = entries.get(cacheKey);
+                if (entry != null) {
+                    if (!entry.arguments().equals(arguments)) {
+                        return conflict(idempotencyKey);
+                    }
+                    LOGGER.fine("幂等键命中，返回首次调用结果: " + cacheKey);
+                    return entry.result();
+                }
+
+                // 工具处理函数同步完成实际工作，缓存的Mono只重放结果，不会再次执行
+                Mono<McpSchema.CallToolResult> result = spec.call().apply(exchange, arguments)
+                    .doOnNext(value -> {
+                        if (Boolean.TRUE.equals(value.isError())) {
+                            invalidate(entries, cacheKey);
+                        }
+                    })
+                    .doOnError(e -> invalidate(entries, cacheKey))
+                    .cache();
+                entries.put(cacheKey, new Entry(arguments, result, System.currentTimeMillis()));
+                return result;
+            }
+        });
+    }
+
+    /**
+     * 在工具输入结构中加入可选的idempotencyKey参数
+     */
+    private static McpSchema.Tool withKeyArgument(McpSchema.Tool tool) {
+        McpSchema.JsonSchema schema = tool.inputSchema();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        if (schema.properties() != null) {
+            properties.putAll(schema.properties());
+        }
+        properties.put(KEY_ARGUMENT, Map.of(
+            "type", "string",
+            "description", "可选的幂等键，超时重试时传入相同的值，同一会话内只执行一次并返回首次调用的结果"));
+        return new McpSchema.Tool(tool.name(), tool.description(), new McpSchema.JsonSchema(
+            schema.type(), properties, schema.required(), schema.additionalProperties()));
+    }
+
+    private static Map<String, Entry> newSessionCache() {
+        return new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > MAX_ENTRIES_PER_SESSION;
+            }
+        };
+    }
+
+    /**
+     * 按插入顺序移除过期的缓存
+     */
+    private static void evictExpired(Map<String, Entry> entries) {
+        long expiredBefore = System.currentTimeMillis() - TTL_MILLIS;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext() && it.next().createdAt() < expiredBefore) {
+            it.remove();
+        }
+    }
+
+    private static void invalidate(Map<String, Entry> entries, String cacheKey) {
+        synchronized (entries) {
+            entries.remove(cacheKey);
+        }
+    }
+
+    private static Mono<McpSchema.CallToolResult> conflict(String idempotencyKey) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", "幂等键" + idempotencyKey + "已用于参数不同的调用，请使用新的幂等键");
+        return Mono.just(new McpSchema.CallToolResult(List.of(new TextContent(response.toString())), true));
+    }
+
+    private static long readTtlMinutes() {
+        String value = System.getenv("IDEMPOTENCY_TTL_MINUTES");
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_TTL_MINUTES;
+        }
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("无效的IDEMPOTENCY_TTL_MINUTES: " + value + "，使用默认值" + DEFAULT_TTL_MINUTES);
+            return DEFAULT_TTL_MINUTES;
+        }
+    }
+}
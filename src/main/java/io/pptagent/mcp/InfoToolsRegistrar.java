@@ -3,16 +3,18 @@ package io.pptagent.mcp;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
-import io.pptagent.tools.info.InfoTools;
 import io.pptagent.tools.info.InfoTools.ShapeInfo;
-import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.PresentationPool;
+import io.pptagent.tools.PresentationPool.PoolStats;
+import io.pptagent.tools.snapshot.SnapshotReads;
+import io.pptagent.tools.snapshot.SnapshotReads.DeckView;
+import io.pptagent.tools.snapshot.SnapshotReads.SlideView;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import reactor.core.publisher.Mono;
-import com.aspose.slides.Presentation;
 
 /**
  * 信息工具注册类
@@ -25,7 +27,10 @@ public class InfoToolsRegistrar {
     public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
         List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
         
+        tools.add(createGetSlideCountToolSpec());
         tools.add(createGetShapesInfoToolSpec());
+        tools.add(createGetPresentationPoolStatsToolSpec());
+        tools.add(createGetReadCacheStatsToolSpec());
         
         return tools;
     }
@@ -42,13 +47,19 @@ public class InfoToolsRegistrar {
             """;
         
         return new McpServerFeatures.AsyncToolSpecification(
-            new McpSchema.Tool("getSlideCount", "获取当前演示文稿的幻灯片数量", schema),
+            new McpSchema.Tool("getSlideCount", "获取当前演示文稿的幻灯片数量，以及整个演示文稿和各幻灯片的etag", schema),
             (exchange, args) -> {
-                Presentation pres = PresentationManager.getInstance().getPresentation();
-                int slideCount = InfoTools.getSlideCount(pres);
+                // 读取最近一次提交的快照，无需等待进行中的编辑
+                DeckView view = SnapshotReads.current();
+                List<String> etags = new ArrayList<>();
+                for (SlideView slide : view.slides()) {
+                    etags.add(slide.version());
+                }
                 
                 Map<String, Object> response = new HashMap<>();
-                response.put("slideCount", slideCount);
+                response.put("slideCount", view.slides().size());
+                response.put("etag", String.valueOf(view.version()));
+                response.put("slideEtags", etags);
                 
                 // 将结果转为JSON字符串
                 String resultJson = response.toString();
@@ -83,16 +94,21 @@ public class InfoToolsRegistrar {
             """;
         
         return new McpServerFeatures.AsyncToolSpecification(
-            new McpSchema.Tool("getShapesInfo", "获取指定幻灯片中所有形状的信息", schema),
+            new McpSchema.Tool("getShapesInfo", "获取指定幻灯片中所有形状的信息，以及该幻灯片的etag", schema),
             (exchange, args) -> {
                 int slideIndex = ((Number) args.get("slideIndex")).intValue();
                 
-                Presentation pres = PresentationManager.getInstance().getPresentation();
-                List<ShapeInfo> shapesInfo = InfoTools.getShapesInfo(pres, slideIndex);
+                // 读取最近一次提交的快照，无需等待进行中的编辑
+                SlideView slide = SnapshotReads.getSlide(slideIndex);
+                List<ShapeInfo> shapesInfo = slide != null ? slide.shapes() : List.of();
                 
                 // 构建响应数据
                 Map<String, Object> response = new HashMap<>();
                 response.put("slideIndex", slideIndex);
+                if (slide != null) {
+                    // 修改该幻灯片时作为ifMatch传入，幻灯片已被其他调用修改时拒绝写入
+                    response.put("etag", slide.version());
+                }
                 response.put("shapeCount", shapesInfo.size());
                 
                 List<Map<String, Object>> shapesData = new ArrayList<>();
@@ -129,4 +145,81 @@ public class InfoToolsRegistrar {
             }
         );
     }
-}
\ No newline at end of file
+    
+    /**
+     * 创建获取演示文稿对象池统计工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetPresentationPoolStatsToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {}
+            }
+            """;
+        
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getPresentationPoolStats", "获取预构建演示文稿对象池的容量、可用数量和命中/未命中次数", schema),
+            (exchange, args) -> {
+                PoolStats stats = PresentationPool.getStats();
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("capacity", stats.getCapacity());
+                response.put("available", stats.getAvailable());
+                response.put("hits", stats.getHits());
+                response.put("misses", stats.getMisses());
+                
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+                
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+                
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+    
+    /**
+     * 创建获取读取缓存统计工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetReadCacheStatsToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {}
+            }
+            """;
+        
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getReadCacheStats", "获取只读工具结果缓存的命中/未命中次数、命中率和缓存条数，以及快照读取和捕获次数", schema),
+            (exchange, args) -> {
+                ReadResultCache.Stats stats = ReadResultCache.getStats();
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("hits", stats.hits());
+                response.put("misses", stats.misses());
+                response.put("hitRate", String.format("%.2f", stats.hitRate()));
+                response.put("entries", stats.entries());
+                
+                SnapshotReads.Stats snapshotStats = SnapshotReads.getStats();
+                response.put("snapshotReads", snapshotStats.snapshotReads());
+                response.put("snapshotCaptures", snapshotStats.captures());
+                response.put("capturedSlides", snapshotStats.capturedSlides());
+                
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+                
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+                
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
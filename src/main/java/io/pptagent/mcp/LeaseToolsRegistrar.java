@@ -0,0 +1,271 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.lease.SlideLeases;
+import io.pptagent.tools.lease.SlideLeases.AcquireResult;
+import io.pptagent.tools.lease.SlideLeases.Lease;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import reactor.core.publisher.Mono;
+
+/**
+ * 幻灯片租约工具注册类
+ * 多个客户端分工构建同一演示文稿时，各自用acquireSlides租用负责的幻灯片，修改时传入leaseId。
+ * 修改被其他租约占用的幻灯片、或在其他租约有效期间替换整个演示文稿的调用会被拒绝。
+ */
+public class LeaseToolsRegistrar {
+
+    public static final String LEASE_ARGUMENT = "leaseId";
+    // 替换整个演示文稿的工具，任一幻灯片被其他租约占用时拒绝
+    private static final Set<String> DECK_REPLACING_TOOLS = Set.of("createPresentation", "buildPresentationFromSpec");
+
+    /**
+     * 创建所有租约工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createAcquireSlidesToolSpec());
+        tools.add(createReleaseSlidesToolSpec());
+        tools.add(createGetSlideLeasesToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 包装修改类工具规范：在输入结构中加入leaseId参数，修改被其他租约占用的幻灯片时拒绝执行
+     * 需在会话绑定之内执行，检查和修改在编辑锁内完成
+     *
+     * @param spec 原始工具规范
+     * @return 检查租约的工具规范，其余工具原样返回
+     */
+    public static McpServerFeatures.AsyncToolSpecification guard(McpServerFeatures.AsyncToolSpecification spec) {
+        McpSchema.Tool tool = spec.tool();
+        if (!ReadResultCache.isMutating(tool.name())) {
+            return spec;
+        }
+        boolean deckReplacing = DECK_REPLACING_TOOLS.contains(tool.name());
+        return new McpServerFeatures.AsyncToolSpecification(withLeaseArgument(tool), (exchange, args) -> {
+            int slideIndex;
+            if (args != null && args.get("slideIndex") instanceof Number index) {
+                slideIndex = index.intValue();
+            } else if (deckReplacing) {
+                slideIndex = -1;
+            } else {
+                // 追加幻灯片等不影响已有幻灯片的修改无需检查
+                return spec.call().apply(exchange, args);
+            }
+            String leaseId = args != null && args.get(LEASE_ARGUMENT) instanceof String id ? id : null;
+
+            PresentationManager manager = PresentationManager.getInstance();
+            // 会话绑定已持有编辑锁时重入，STDIO模式下在此获取
+            synchronized (manager.getEditLock()) {
+                Lease blocking = SlideLeases.findBlockingLease(manager, slideIndex, leaseId);
+                if (blocking != null) {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("leased", true);
+                    response.put("retryable", true);
+                    response.put("retryAfterMs", blocking.remainingMillis());
+                    response.put("blockingLease", toMap(blocking, false));
+                    response.put("message", slideIndex >= 0
+                        ? "幻灯片" + slideIndex + "已被其他租约占用，请传入自己的leaseId或等待租约到期"
+                        : "演示文稿中有幻灯片被其他租约占用，不能替换整个演示文稿");
+                    return Mono.just(new McpSchema.CallToolResult(List.of(new TextContent(response.toString())), true));
+                }
+                return spec.call().apply(exchange, args);
+            }
+        });
+    }
+
+    /**
+     * 在工具输入结构中加入可选的leaseId参数
+     */
+    private static McpSchema.Tool withLeaseArgument(McpSchema.Tool tool) {
+        McpSchema.JsonSchema schema = tool.inputSchema();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        if (schema.properties() != null) {
+            properties.putAll(schema.properties());
+        }
+        properties.put(LEASE_ARGUMENT, Map.of(
+            "type", "string",
+            "description", "可选的租约ID，来自acquireSlides，修改已租用的幻灯片时需要传入"));
+        return new McpSchema.Tool(tool.name(), tool.description(), new McpSchema.JsonSchema(
+            schema.type(), properties, schema.required(), schema.additionalProperties()));
+    }
+
+    /**
+     * 租约信息，租约ID只返回给持有者
+     */
+    private static Map<String, Object> toMap(Lease lease, boolean includeId) {
+        Map<String, Object> data = new HashMap<>();
+        if (includeId) {
+            data.put("leaseId", lease.leaseId());
+        }
+        data.put("owner", lease.owner());
+        data.put("slides", new ArrayList<>(lease.slides()));
+        data.put("remainingMs", lease.remainingMillis());
+        return data;
+    }
+
+    /**
+     * 创建租用幻灯片工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createAcquireSlidesToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "slideIndexes": {
+                  "type": "array",
+                  "items": {
+                    "type": "integer",
+                    "minimum": 0
+                  },
+                  "description": "要租用的幻灯片索引，从0开始"
+                },
+                "ttlSeconds": {
+                  "type": "integer",
+                  "minimum": 1,
+                  "description": "租期（秒），默认60，最长600，到期前可续租"
+                },
+                "leaseId": {
+                  "type": "string",
+                  "description": "续租时传入已有的租约ID，幻灯片集合替换为本次请求的集合"
+                },
+                "owner": {
+                  "type": "string",
+                  "description": "持有者名称，显示给被拒绝的其他客户端"
+                }
+              },
+              "required": ["slideIndexes"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("acquireSlides", "租用幻灯片以独占编辑，所请求的幻灯片全部可用时才成功；修改这些幻灯片时需传入返回的leaseId", schema),
+            (exchange, args) -> {
+                List<Integer> slides = new ArrayList<>();
+                for (Object index : (List<?>) args.get("slideIndexes")) {
+                    slides.add(((Number) index).intValue());
+                }
+                long ttlSeconds = args.get("ttlSeconds") instanceof Number ttl ? ttl.longValue() : 0;
+                String leaseId = (String) args.get("leaseId");
+                String owner = (String) args.get("owner");
+
+                AcquireResult result = SlideLeases.acquire(PresentationManager.getInstance(), slides, ttlSeconds,
+                    leaseId, owner);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", result.isAcquired());
+                if (result.isAcquired()) {
+                    response.putAll(toMap(result.lease(), true));
+                } else {
+                    List<Map<String, Object>> conflicts = new ArrayList<>();
+                    for (Lease lease : result.conflicts()) {
+                        conflicts.add(toMap(lease, false));
+                    }
+                    response.put("conflicts", conflicts);
+                    response.put("message", "部分幻灯片已被其他租约占用");
+                }
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+
+    /**
+     * 创建释放幻灯片工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createReleaseSlidesToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "leaseId": {
+                  "type": "string",
+                  "description": "要释放的租约ID"
+                }
+              },
+              "required": ["leaseId"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("releaseSlides", "释放租约，其他客户端随即可以租用或修改这些幻灯片", schema),
+            (exchange, args) -> {
+                String leaseId = (String) args.get("leaseId");
+                boolean released = SlideLeases.release(PresentationManager.getInstance(), leaseId);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", released);
+                response.put("message", released ? "租约已释放" : "租约不存在或已到期: " + leaseId);
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+
+    /**
+     * 创建获取幻灯片租约工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetSlideLeasesToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {}
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getSlideLeases", "获取当前演示文稿的有效租约：持有者、租用的幻灯片和剩余时间", schema),
+            (exchange, args) -> {
+                List<Map<String, Object>> leases = new ArrayList<>();
+                for (Lease lease : SlideLeases.getLeases(PresentationManager.getInstance())) {
+                    leases.add(toMap(lease, false));
+                }
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("leases", leases);
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
@@ -0,0 +1,177 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.merge.MailMergeTools;
+import io.pptagent.tools.merge.MailMergeTools.MergeJobStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 批量生成工具注册类
+ */
+public class MailMergeToolsRegistrar {
+
+    /**
+     * 创建所有批量生成工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createStartMailMergeToolSpec());
+        tools.add(createGetMailMergeStatusToolSpec());
+        tools.add(createCancelMailMergeToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 创建启动批量生成工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createStartMailMergeToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "templatePath": {
+                  "type": "string",
+                  "description": "模板演示文稿路径，占位符按形状名称、占位符类型(TITLE/SUBTITLE/BODY)或{{列名}}标记填充"
+                },
+                "dataPath": {
+                  "type": "string",
+                  "description": "数据文件路径：.csv（首行为列名，UTF-8编码）或.jsonl（每行一个JSON对象），每行生成一份演示文稿"
+                },
+                "outputPattern": {
+                  "type": "string",
+                  "description": "输出文件名模式，支持{{列名}}和{{rowIndex}}，默认为deck_{{rowIndex}}"
+                },
+                "outputDir": {
+                  "type": "string",
+                  "description": "输出目录，默认为工作目录下的merge/任务ID"
+                },
+                "format": {
+                  "type": "string",
+                  "description": "保存格式(PPTX/PPT/PDF)，默认为PPTX"
+                },
+                "maxRetries": {
+                  "type": "integer",
+                  "minimum": 0,
+                  "description": "每行失败后的最大重试次数，默认为1"
+                }
+              },
+              "required": ["templatePath", "dataPath"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("startMailMerge", "启动批量生成任务：以模板和数据文件为输入，在后台并行为每行数据生成一份演示文稿，返回任务ID", schema),
+            (exchange, args) -> {
+                String templatePath = (String) args.get("templatePath");
+                String dataPath = (String) args.get("dataPath");
+                String outputPattern = (String) args.get("outputPattern");
+                String outputDir = (String) args.get("outputDir");
+                String format = (String) args.get("format");
+                int maxRetries = args.containsKey("maxRetries") ?
+                    ((Number) args.get("maxRetries")).intValue() : 1;
+
+                MergeJobStatus result = MailMergeTools.startMerge(templatePath, dataPath, outputPattern,
+                    outputDir, format, maxRetries);
+
+                return Mono.just(toCallToolResult(result));
+            }
+        );
+    }
+
+    /**
+     * 创建查询批量生成进度工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetMailMergeStatusToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "jobId": {
+                  "type": "string",
+                  "description": "startMailMerge返回的任务ID"
+                }
+              },
+              "required": ["jobId"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getMailMergeStatus", "查询批量生成任务的进度、失败行、重试次数和吞吐量(份/分钟)", schema),
+            (exchange, args) -> {
+                String jobId = (String) args.get("jobId");
+
+                MergeJobStatus result = MailMergeTools.getStatus(jobId);
+
+                return Mono.just(toCallToolResult(result));
+            }
+        );
+    }
+
+    /**
+     * 创建取消批量生成工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createCancelMailMergeToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "jobId": {
+                  "type": "string",
+                  "description": "startMailMerge返回的任务ID"
+                }
+              },
+              "required": ["jobId"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("cancelMailMerge", "取消批量生成任务，尚未开始的行不再生成", schema),
+            (exchange, args) -> {
+                String jobId = (String) args.get("jobId");
+
+                MergeJobStatus result = MailMergeTools.cancel(jobId);
+
+                return Mono.just(toCallToolResult(result));
+            }
+        );
+    }
+
+    /**
+     * 将任务进度转换为调用结果
+     */
+    private static McpSchema.CallToolResult toCallToolResult(MergeJobStatus result) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", result.isSuccess());
+        response.put("jobId", result.getJobId());
+        response.put("status", result.getStatus());
+        response.put("total", result.getTotal());
+        response.put("completed", result.getCompleted());
+        response.put("failed", result.getFailed());
+        response.put("retries", result.getRetries());
+        response.put("decksPerMinute", result.getDecksPerMinute());
+        response.put("elapsedMs", result.getElapsedMs());
+        response.put("outputDir", result.getOutputDir());
+        response.put("errors", result.getErrors());
+        response.put("message", result.getMessage());
+
+        // 将结果转为JSON字符串
+        String resultJson = response.toString();
+
+        // 创建文本内容
+        List<McpSchema.Content> content = List.of(
+            new TextContent(resultJson)
+        );
+
+        // 使用内容列表创建调用结果
+        return new McpSchema.CallToolResult(content, false);
+    }
+}
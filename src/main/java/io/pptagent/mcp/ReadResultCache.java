@@ -0,0 +1,151 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.snapshot.SnapshotReads;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import reactor.core.publisher.Mono;
+
+/**
+ * 读取结果缓存 - 按幻灯片版本缓存只读工具的结果
+ * 修改类工具调用成功后递增所修改幻灯片（有slideIndex参数时）或整个演示文稿的版本；
+ * 只读工具的结果以（工具、参数、版本）为键缓存，幻灯片未修改时重复读取直接返回缓存结果，
+ * 不再遍历形状和提取文本。缓存按演示文稿隔离，每个演示文稿最多保留{@value #MAX_ENTRIES}条。
+ */
+public final class ReadResultCache {
+
+    private static final int MAX_ENTRIES = 512;
+    // 结果只取决于演示文稿内容的只读工具
+    private static final Set<String> CACHEABLE_TOOLS = Set.of("getShapesInfo", "getSlideCount");
+    // 不修改演示文稿内容的非get工具
+    private static final Set<String> NON_MUTATING_TOOLS = Set.of(
+        "savePresentation", "selectSlide", "loadTemplate", "startMailMerge", "cancelMailMerge",
+        "acquireSlides", "releaseSlides");
+
+    private static final Map<PresentationManager, Map<String, McpSchema.CallToolResult>> CACHES =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private ReadResultCache() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 表示读取缓存统计信息的记录
+     */
+    public record Stats(long hits, long misses, int entries) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total > 0 ? (double) hits / total : 0;
+        }
+    }
+
+    /**
+     * 包装工具规范：只读工具按版本缓存结果，修改类工具完成后递增版本，其余工具原样返回
+     * 需在会话绑定之内执行，以便使用所属会话的演示文稿版本
+     *
+     * @param spec 原始工具规范
+     * @return 包装后的工具规范
+     */
+    public static McpServerFeatures.AsyncToolSpecification wrap(McpServerFeatures.AsyncToolSpecification spec) {
+        String toolName = spec.tool().name();
+        if (CACHEABLE_TOOLS.contains(toolName)) {
+            return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+                PresentationManager manager = PresentationManager.getInstance();
+                String key = toolName + (args != null ? new TreeMap<>(args) : "{}") + "@" + versionOf(manager, args);
+                Map<String, McpSchema.CallToolResult> cache = CACHES.computeIfAbsent(manager, m -> newCache());
+                McpSchema.CallToolResult cached;
+                synchronized (cache) {
+                    cached = cache.get(key);
+                }
+                if (cached != null) {
+                    HITS.incrementAndGet();
+                    return Mono.just(cached);
+                }
+                MISSES.incrementAndGet();
+                return spec.call().apply(exchange, args).doOnNext(result -> {
+                    if (!Boolean.TRUE.equals(result.isError())) {
+                        synchronized (cache) {
+                            cache.put(key, result);
+                        }
+                    }
+                });
+            });
+        }
+        if (!isMutating(toolName)) {
+            return spec;
+        }
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            PresentationManager manager = PresentationManager.getInstance();
+            // 工具处理函数同步完成实际工作，调用返回时修改已经完成；
+            // 失败的调用可能已经修改了一部分内容（批量中的单项失败、填充到一半的图表），只要处理函数执行过就递增版本，
+            // 多余的递增只让缓存多一次未命中。只有执行前被拒绝（isError）的调用不递增
+            Mono<McpSchema.CallToolResult> result = spec.call().apply(exchange, args).cache();
+            if (ToolResults.rejected(result)) {
+                return result;
+            }
+            if (args != null && args.get("slideIndex") instanceof Number slideIndex) {
+                manager.markSlideChanged(slideIndex.intValue());
+                // 单张幻灯片的修改立即提交快照，只重新捕获该幻灯片；整个演示文稿的修改在下次读取时捕获
+                if (manager.isLoaded()) {
+                    synchronized (manager.getEditLock()) {
+                        SnapshotReads.commit(manager);
+                    }
+                }
+            } else {
+                manager.markDeckChanged();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 判断工具是否修改演示文稿内容
+     */
+    static boolean isMutating(String toolName) {
+        return !toolName.startsWith("get") && !NON_MUTATING_TOOLS.contains(toolName);
+    }
+
+    /**
+     * 获取读取缓存统计信息
+     */
+    public static Stats getStats() {
+        int entries = 0;
+        synchronized (CACHES) {
+            for (Map<String, McpSchema.CallToolResult> cache : CACHES.values()) {
+                synchronized (cache) {
+                    entries += cache.size();
+                }
+            }
+        }
+        return new Stats(HITS.get(), MISSES.get(), entries);
+    }
+
+    /**
+     * 有slideIndex参数时使用该幻灯片的版本，否则使用整个演示文稿的版本
+     */
+    private static String versionOf(PresentationManager manager, Map<String, Object> args) {
+        if (args != null && args.get("slideIndex") instanceof Number slideIndex) {
+            return manager.getSlideVersion(slideIndex.intValue());
+        }
+        return String.valueOf(manager.getChangeCount());
+    }
+
+    private static Map<String, McpSchema.CallToolResult> newCache() {
+        return new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, McpSchema.CallToolResult> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+}
@@ -0,0 +1,298 @@
+package io.pptagent.mcp;
+
+import com.aspose.slides.Presentation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.changes.ChangeFeed;
+import io.pptagent.tools.info.InfoTools.ShapeInfo;
+import io.pptagent.tools.info.ThumbnailTools;
+import io.pptagent.tools.snapshot.SnapshotReads;
+import io.pptagent.tools.snapshot.SnapshotReads.DeckView;
+import io.pptagent.tools.snapshot.SnapshotReads.SlideView;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import reactor.core.publisher.Mono;
+
+/**
+ * 资源注册类 - 将演示文稿大纲、幻灯片结构和缩略图发布为MCP资源
+ * 资源URI固定：{@value #OUTLINE_URI}为大纲，ppt://slides/{slideIndex}为幻灯片结构（JSON），
+ * ppt://slides/{slideIndex}/thumbnail为缩略图（PNG）。每份内容都带有etag（幻灯片版本），
+ * 大纲中列出各幻灯片的etag，客户端比较后只重新读取变化的幻灯片。
+ * 读取过资源的客户端会收到logger为changes的修改推送，其中的uri指出需要重新读取的资源。
+ */
+public class ResourceRegistrar {
+    private static final Logger LOGGER = Logger.getLogger(ResourceRegistrar.class.getName());
+
+    public static final String OUTLINE_URI = "ppt://deck/outline";
+    private static final String SLIDE_URI_PREFIX = "ppt://slides/";
+    private static final String THUMBNAIL_SUFFIX = "/thumbnail";
+    private static final float THUMBNAIL_SCALE = 0.5f;
+    // 每个演示文稿缓存的缩略图数量
+    private static final int MAX_THUMBNAILS = 64;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<PresentationManager, Map<String, byte[]>> THUMBNAILS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static McpAsyncServer server;
+    private static UnaryOperator<McpServerFeatures.AsyncResourceSpecification> decorator = UnaryOperator.identity();
+    // 已注册幻灯片资源的数量，所有演示文稿共用
+    private static int publishedSlides;
+
+    /**
+     * 获取幻灯片结构资源的URI
+     */
+    public static String slideUri(int slideIndex) {
+        return SLIDE_URI_PREFIX + slideIndex;
+    }
+
+    /**
+     * 获取幻灯片缩略图资源的URI
+     */
+    public static String thumbnailUri(int slideIndex) {
+        return slideUri(slideIndex) + THUMBNAIL_SUFFIX;
+    }
+
+    /**
+     * 创建资源模板，供客户端了解幻灯片资源的URI格式
+     */
+    public static List<McpSchema.ResourceTemplate> createResourceTemplates() {
+        return List.of(
+            new McpSchema.ResourceTemplate(SLIDE_URI_PREFIX + "{slideIndex}", "幻灯片",
+                "幻灯片中所有形状的位置、尺寸、类型和文本，以及幻灯片的etag", "application/json", null),
+            new McpSchema.ResourceTemplate(SLIDE_URI_PREFIX + "{slideIndex}" + THUMBNAIL_SUFFIX, "幻灯片缩略图",
+                "幻灯片的PNG缩略图", "image/png", null));
+    }
+
+    /**
+     * 创建初始资源规范：大纲以及当前演示文稿各幻灯片的结构和缩略图
+     * 演示文稿尚未加载（延迟创建或休眠中）时不在启动时加载，加载后由{@link #attach}注册的监听器补充注册
+     *
+     * @param resourceDecorator 资源包装（HTTP模式下绑定会话）
+     */
+    public static List<McpServerFeatures.AsyncResourceSpecification> createResourceSpecifications(
+            UnaryOperator<McpServerFeatures.AsyncResourceSpecification> resourceDecorator) {
+        PresentationManager manager = PresentationManager.getInstance();
+        // 在获取本类的锁之前读取幻灯片数，加载监听器在持有管理器锁时获取本类的锁
+        int slideCount = manager.isLoaded()
+            ? manager.getPresentationOptional().map(pres -> pres.getSlides().size()).orElse(0)
+            : 0;
+        synchronized (ResourceRegistrar.class) {
+            decorator = resourceDecorator;
+            List<McpServerFeatures.AsyncResourceSpecification> resources = new ArrayList<>();
+            resources.add(decorator.apply(createOutlineResourceSpec()));
+            for (; publishedSlides < slideCount; publishedSlides++) {
+                resources.add(decorator.apply(createSlideResourceSpec(publishedSlides)));
+                resources.add(decorator.apply(createThumbnailResourceSpec(publishedSlides)));
+            }
+            return resources;
+        }
+    }
+
+    /**
+     * 绑定服务器：任一演示文稿修改后或加载后（延迟创建、从休眠快照恢复）幻灯片数超过已注册数量时，
+     * 追加注册新幻灯片的资源
+     *
+     * @param mcpServer MCP服务器
+     */
+    public static void attach(McpAsyncServer mcpServer) {
+        synchronized (ResourceRegistrar.class) {
+            server = mcpServer;
+        }
+        ChangeFeed.addListener((manager, change) ->
+            manager.getPresentationOptional().ifPresent(pres -> publishSlides(pres.getSlides().size())));
+        PresentationManager.addLoadListener((manager, pres) -> publishSlides(pres.getSlides().size()));
+        // 绑定前已经加载的演示文稿（如启动时已恢复的快照）
+        PresentationManager manager = PresentationManager.getInstance();
+        if (manager.isLoaded()) {
+            manager.getPresentationOptional().ifPresent(pres -> publishSlides(pres.getSlides().size()));
+        }
+    }
+
+    /**
+     * 追加注册幻灯片资源，服务器随后发送资源列表变化通知
+     */
+    private static synchronized void publishSlides(int slideCount) {
+        if (server == null) {
+            return;
+        }
+        for (; publishedSlides < slideCount; publishedSlides++) {
+            int slideIndex = publishedSlides;
+            // addResource在资源能力启用listChanged时发送资源列表变化通知
+            server.addResource(decorator.apply(createSlideResourceSpec(slideIndex)))
+                .then(server.addResource(decorator.apply(createThumbnailResourceSpec(slideIndex))))
+                .subscribe(null, e -> LOGGER.log(Level.WARNING, "注册幻灯片资源失败: " + slideIndex, e));
+        }
+    }
+
+    /**
+     * 创建大纲资源规范
+     */
+    private static McpServerFeatures.AsyncResourceSpecification createOutlineResourceSpec() {
+        return new McpServerFeatures.AsyncResourceSpecification(
+            new McpSchema.Resource(OUTLINE_URI, "演示文稿大纲",
+                "各幻灯片的标题、形状数量、资源URI和etag，etag变化的幻灯片需要重新读取", "application/json", null),
+            (exchange, request) -> {
+                ChangeFeedToolsRegistrar.subscribe(PresentationManager.getInstance(), exchange);
+                DeckView view = SnapshotReads.current();
+                // 快照可能来自休眠前，演示文稿未加载时监听器不会触发，按快照中的幻灯片数补充注册
+                publishSlides(view.slides().size());
+
+                List<Map<String, Object>> slides = new ArrayList<>();
+                for (int i = 0; i < view.slides().size(); i++) {
+                    SlideView slide = view.slides().get(i);
+                    Map<String, Object> slideData = new LinkedHashMap<>();
+                    slideData.put("slideIndex", i);
+                    slideData.put("uri", slideUri(i));
+                    slideData.put("thumbnailUri", thumbnailUri(i));
+                    slideData.put("etag", slide.version());
+                    slideData.put("title", titleOf(slide));
+                    slideData.put("shapeCount", slide.shapes().size());
+                    slides.add(slideData);
+                }
+
+                Map<String, Object> outline = new LinkedHashMap<>();
+                outline.put("etag", String.valueOf(view.version()));
+                outline.put("slideCount", slides.size());
+                outline.put("slides", slides);
+                return json(OUTLINE_URI, outline);
+            }
+        );
+    }
+
+    /**
+     * 创建幻灯片结构资源规范
+     */
+    private static McpServerFeatures.AsyncResourceSpecification createSlideResourceSpec(int slideIndex) {
+        String uri = slideUri(slideIndex);
+        return new McpServerFeatures.AsyncResourceSpecification(
+            new McpSchema.Resource(uri, "幻灯片" + (slideIndex + 1),
+                "第" + (slideIndex + 1) + "张幻灯片中所有形状的位置、尺寸、类型和文本", "application/json", null),
+            (exchange, request) -> {
+                ChangeFeedToolsRegistrar.subscribe(PresentationManager.getInstance(), exchange);
+                List<SlideView> slides = SnapshotReads.current().slides();
+                if (slideIndex >= slides.size()) {
+                    return notFound(uri);
+                }
+                SlideView slide = slides.get(slideIndex);
+
+                List<Map<String, Object>> shapes = new ArrayList<>();
+                for (ShapeInfo shape : slide.shapes()) {
+                    Map<String, Object> shapeData = new LinkedHashMap<>();
+                    shapeData.put("shapeIndex", shape.getShapeIndex());
+                    shapeData.put("shapeType", shape.getShapeType());
+                    shapeData.put("x", shape.getX());
+                    shapeData.put("y", shape.getY());
+                    shapeData.put("width", shape.getWidth());
+                    shapeData.put("height", shape.getHeight());
+                    shapeData.put("hasTextFrame", shape.isHasTextFrame());
+                    if (shape.isHasTextFrame()) {
+                        shapeData.put("textContent", shape.getTextContent());
+                    }
+                    shapes.add(shapeData);
+                }
+
+                Map<String, Object> slideData = new LinkedHashMap<>();
+                slideData.put("slideIndex", slideIndex);
+                slideData.put("etag", slide.version());
+                slideData.put("thumbnailUri", thumbnailUri(slideIndex));
+                slideData.put("shapes", shapes);
+                return json(uri, slideData);
+            }
+        );
+    }
+
+    /**
+     * 创建幻灯片缩略图资源规范
+     * 缩略图按幻灯片版本缓存，幻灯片未修改时不重新渲染
+     */
+    private static McpServerFeatures.AsyncResourceSpecification createThumbnailResourceSpec(int slideIndex) {
+        String uri = thumbnailUri(slideIndex);
+        return new McpServerFeatures.AsyncResourceSpecification(
+            new McpSchema.Resource(uri, "幻灯片" + (slideIndex + 1) + "缩略图",
+                "第" + (slideIndex + 1) + "张幻灯片的PNG缩略图", "image/png", null),
+            (exchange, request) -> {
+                PresentationManager manager = PresentationManager.getInstance();
+                ChangeFeedToolsRegistrar.subscribe(manager, exchange);
+                Map<String, byte[]> cache = THUMBNAILS.computeIfAbsent(manager, m -> newThumbnailCache());
+
+                byte[] png;
+                // 渲染读取可变的演示文稿，需持有编辑锁
+                synchronized (manager.getEditLock()) {
+                    String key = slideIndex + "@" + manager.getSlideVersion(slideIndex);
+                    synchronized (cache) {
+                        png = cache.get(key);
+                    }
+                    if (png == null) {
+                        // 渲染期间标记正在使用，避免演示文稿被休眠
+                        manager.beginUse();
+                        try {
+                            Presentation pres = manager.getPresentation();
+                            png = ThumbnailTools.renderThumbnail(pres, slideIndex, THUMBNAIL_SCALE);
+                        } finally {
+                            manager.endUse();
+                        }
+                        if (png == null) {
+                            return notFound(uri);
+                        }
+                        synchronized (cache) {
+                            cache.put(key, png);
+                        }
+                    }
+                }
+
+                return Mono.just(new McpSchema.ReadResourceResult(List.of(
+                    new McpSchema.BlobResourceContents(uri, "image/png", Base64.getEncoder().encodeToString(png)))));
+            }
+        );
+    }
+
+    /**
+     * 以第一个带文本的形状的首行作为幻灯片标题
+     */
+    private static String titleOf(SlideView slide) {
+        for (ShapeInfo shape : slide.shapes()) {
+            String text = shape.getTextContent();
+            if (shape.isHasTextFrame() && text != null && !text.isBlank()) {
+                return text.strip().lines().findFirst().orElse("");
+            }
+        }
+        return "";
+    }
+
+    private static Mono<McpSchema.ReadResourceResult> json(String uri, Map<String, Object> data) {
+        try {
+            return Mono.just(new McpSchema.ReadResourceResult(List.of(
+                new McpSchema.TextResourceContents(uri, "application/json", MAPPER.writeValueAsString(data)))));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+    private static Mono<McpSchema.ReadResourceResult> notFound(String uri) {
+        return Mono.error(new McpError("当前演示文稿中不存在该资源: " + uri));
+    }
+
+    private static Map<String, byte[]> newThumbnailCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > MAX_THUMBNAILS;
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.scheduler.LaneScheduler;
+import io.pptagent.tools.scheduler.LaneScheduler.Lane;
+import io.pptagent.tools.scheduler.LaneScheduler.LaneStats;
+import io.pptagent.tools.scheduler.LaneScheduler.Slot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 调度工具注册类
+ */
+public class SchedulerToolsRegistrar {
+
+    /**
+     * 创建所有调度工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createGetSchedulerStatsToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 包装工具规范，调用前在所属通道中按会话公平排队
+     * 需在会话绑定之外执行，同一会话等待名额时不占用会话锁
+     *
+     * @param spec 原始工具规范
+     * @return 受调度的工具规范
+     */
+    public static McpServerFeatures.AsyncToolSpecification schedule(McpServerFeatures.AsyncToolSpecification spec) {
+        Lane lane = LaneScheduler.laneOf(spec.tool().name());
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            // 工具处理函数同步完成实际工作，调用返回时即可交还名额
+            try (Slot slot = LaneScheduler.acquire(lane, exchange)) {
+                return spec.call().apply(exchange, args);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", false);
+                response.put("message", "等待调度时被中断");
+                return Mono.just(new McpSchema.CallToolResult(List.of(new TextContent(response.toString())), true));
+            }
+        });
+    }
+
+    /**
+     * 创建获取调度统计工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetSchedulerStatsToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {}
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getSchedulerStats", "获取各调度通道（交互编辑、读取、重型导出）的并发数、运行与排队数量、排队等待时间", schema),
+            (exchange, args) -> {
+                List<Map<String, Object>> lanes = new ArrayList<>();
+                for (LaneStats stats : LaneScheduler.getStats()) {
+                    Map<String, Object> lane = new HashMap<>();
+                    lane.put("lane", stats.getLane());
+                    lane.put("concurrency", stats.getConcurrency());
+                    lane.put("running", stats.getRunning());
+                    lane.put("queued", stats.getQueued());
+                    lane.put("waitingSessions", stats.getWaitingSessions());
+                    lane.put("granted", stats.getGranted());
+                    lane.put("avgWaitMs", String.format("%.2f", stats.getAvgWaitMs()));
+                    lane.put("maxWaitMs", String.format("%.2f", stats.getMaxWaitMs()));
+                    lanes.add(lane);
+                }
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("lanes", lanes);
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
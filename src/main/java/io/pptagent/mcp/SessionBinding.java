@@ -0,0 +1,171 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.pptagent.tools.PresentationManager;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import reactor.core.publisher.Mono;
+
+/**
+ * 会话绑定 - HTTP模式下每个客户端连接使用独立的演示文稿
+ * 以MCP会话的exchange对象区分连接，工具调用期间将该会话的{@link PresentationManager}绑定到当前线程，
+ * 工具代码无需感知会话。同一会话的调用在演示文稿的编辑锁内串行执行，空闲超时的会话自动释放。
+ * 读取快照或自行管理编辑锁的工具不获取编辑锁，可与同一会话正在进行的编辑并行执行。
+ */
+public final class SessionBinding {
+    private static final Logger LOGGER = Logger.getLogger(SessionBinding.class.getName());
+
+    // 读取快照（快照过期时才获取编辑锁）、只在复制演示文稿期间持有编辑锁或不访问演示文稿的工具
+    private static final Set<String> SNAPSHOT_TOOLS = Set.of(
+        "getShapesInfo", "getSlideCount", "savePresentation", "getChangesSince",
+        "acquireSlides", "releaseSlides", "getSlideLeases");
+
+    private final Map<Object, Session> sessions = new ConcurrentHashMap<>();
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService reaper;
+
+    /**
+     * 会话状态
+     */
+    private static final class Session {
+        final PresentationManager manager;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        Session(PresentationManager manager) {
+            this.manager = manager;
+        }
+    }
+
+    /**
+     * @param idleTimeoutMinutes 会话空闲超时（分钟），超时后释放其演示文稿
+     */
+    public SessionBinding(long idleTimeoutMinutes) {
+        this.idleTimeoutMillis = TimeUnit.MINUTES.toMillis(idleTimeoutMinutes);
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reaper.scheduleWithFixedDelay(this::evictIdleSessions, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 包装工具规范，调用时绑定所属会话的演示文稿
+     *
+     * @param spec 原始工具规范
+     * @return 绑定会话的工具规范
+     */
+    public McpServerFeatures.AsyncToolSpecification bind(McpServerFeatures.AsyncToolSpecification spec) {
+        boolean snapshotTool = SNAPSHOT_TOOLS.contains(spec.tool().name());
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            Session session = sessions.computeIfAbsent(exchange, key -> openSession());
+            session.lastAccess = System.currentTimeMillis();
+            if (snapshotTool) {
+                return call(spec, session, exchange, args);
+            }
+            // 工具处理函数同步完成实际工作，因此在调用期间绑定即可
+            synchronized (session.manager.getEditLock()) {
+                return call(spec, session, exchange, args);
+            }
+        });
+    }
+
+    /**
+     * 包装工具规范，STDIO模式下使用全局演示文稿，调用同样在编辑锁内串行执行
+     * 工具调用在工作线程中并发执行，不再由唯一的读取线程串行
+     *
+     * @param spec 原始工具规范
+     * @return 串行执行的工具规范
+     */
+    public static McpServerFeatures.AsyncToolSpecification serialize(McpServerFeatures.AsyncToolSpecification spec) {
+        if (SNAPSHOT_TOOLS.contains(spec.tool().name())) {
+            return spec;
+        }
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            synchronized (PresentationManager.getInstance().getEditLock()) {
+                return spec.call().apply(exchange, args);
+            }
+        });
+    }
+
+    private static Mono<McpSchema.CallToolResult> call(McpServerFeatures.AsyncToolSpecification spec, Session session,
+                                                       McpAsyncServerExchange exchange, Map<String, Object> args) {
+        PresentationManager.bind(session.manager);
+        try {
+            return spec.call().apply(exchange, args);
+        } finally {
+            PresentationManager.bind(null);
+        }
+    }
+
+    /**
+     * 包装资源规范，读取时绑定所属会话的演示文稿
+     * 资源读取快照或自行获取编辑锁，不与编辑串行
+     *
+     * @param spec 原始资源规范
+     * @return 绑定会话的资源规范
+     */
+    public McpServerFeatures.AsyncResourceSpecification bindResource(McpServerFeatures.AsyncResourceSpecification spec) {
+        return new McpServerFeatures.AsyncResourceSpecification(spec.resource(), (exchange, request) -> {
+            Session session = sessions.computeIfAbsent(exchange, key -> openSession());
+            session.lastAccess = System.currentTimeMillis();
+            PresentationManager.bind(session.manager);
+            try {
+                return spec.readHandler().apply(exchange, request);
+            } finally {
+                PresentationManager.bind(null);
+            }
+        });
+    }
+
+    /**
+     * 获取当前会话数
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * 停止空闲检查并移除所有会话
+     * 会话的演示文稿由关闭钩子（{@link io.pptagent.tools.PresentationHibernator#shutdown()}）统一释放并删除其快照，
+     * 连接在重启后不复存在，会话中未保存的工作不会保留，此处不再重复释放
+     */
+    public void close() {
+        reaper.shutdownNow();
+        sessions.clear();
+    }
+
+    /**
+     * 为新连接创建会话，演示文稿在首次工具调用使用时才创建（新建演示文稿并添加一张空白幻灯片，与STDIO模式一致）
+     */
+    private Session openSession() {
+        PresentationManager manager = PresentationManager.newSessionInstance();
+        manager.enableLazyInit();
+        LOGGER.info("新会话已连接，当前会话数: " + (sessions.size() + 1));
+        return new Session(manager);
+    }
+
+    private void evictIdleSessions() {
+        long now = System.currentTimeMillis();
+        sessions.entrySet().removeIf(entry -> {
+            Session session = entry.getValue();
+            if (now - session.lastAccess < idleTimeoutMillis) {
+                return false;
+            }
+            synchronized (session.manager.getEditLock()) {
+                session.manager.dispose();
+                session.manager.discardSnapshot();
+            }
+            LOGGER.info("会话空闲超时，已释放演示文稿");
+            return true;
+        });
+    }
+}
@@ -25,6 +25,7 @@ public class SlideToolsRegistrar {
         List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
         
         tools.add(createAddSlideToolSpec());
+        tools.add(createDuplicateSlideToolSpec());
         //tools.add(createSelectSlideToolSpec());
         
         return tools;
@@ -74,6 +75,50 @@ public class SlideToolsRegistrar {
         );
     }
     
+    /**
+     * 创建复制幻灯片工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createDuplicateSlideToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "sourceSlideIndex": {
+                  "type": "integer",
+                  "minimum": 0,
+                  "description": "要复制的幻灯片索引，从0开始"
+                }
+              },
+              "required": ["sourceSlideIndex"]
+            }
+            """;
+        
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("duplicateSlide", "复制幻灯片（含所有形状和格式）并追加到演示文稿末尾，已有幻灯片的索引不变", schema),
+            (exchange, args) -> {
+                int sourceSlideIndex = ((Number) args.get("sourceSlideIndex")).intValue();
+                
+                AddSlideResult result = SlideTools.duplicateSlide(sourceSlideIndex);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", result.isSuccess());
+                response.put("slideIndex", result.getSlideIndex());
+                response.put("message", result.getMessage());
+                
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+                
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+                
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+    
     /**
      * 创建选择幻灯片工具规范
      */
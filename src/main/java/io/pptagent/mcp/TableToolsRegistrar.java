@@ -0,0 +1,191 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.table.TableTools;
+import io.pptagent.tools.table.TableTools.AddTableResult;
+import io.pptagent.tools.table.TableTools.TableParams;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 表格工具注册类
+ */
+public class TableToolsRegistrar {
+
+    /**
+     * 创建所有表格工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createAddTableToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 创建添加表格工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createAddTableToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "data": {
+                  "type": "array",
+                  "items": {
+                    "type": "array",
+                    "items": {"type": ["string", "number", "boolean", "null"]}
+                  },
+                  "description": "表格数据，二维数组，第一维是行，第二维是该行的单元格；与csvPath二选一"
+                },
+                "csvPath": {
+                  "type": "string",
+                  "description": "工作目录中的CSV文件路径（UTF-8编码），与data二选一"
+                },
+                "x": {
+                  "type": "number",
+                  "minimum": 0,
+                  "description": "X坐标位置"
+                },
+                "y": {
+                  "type": "number",
+                  "minimum": 0,
+                  "description": "Y坐标位置"
+                },
+                "width": {
+                  "type": "number",
+                  "minimum": 0,
+                  "description": "表格总宽度，按列均分"
+                },
+                "height": {
+                  "type": "number",
+                  "minimum": 0,
+                  "description": "表格总高度，按行均分"
+                },
+                "headerRow": {
+                  "type": "boolean",
+                  "description": "第一行是否为表头，默认为true"
+                },
+                "headerColor": {
+                  "type": "string",
+                  "description": "表头背景颜色，如#1F4E79"
+                },
+                "headerTextColor": {
+                  "type": "string",
+                  "description": "表头文字颜色，如#FFFFFF"
+                },
+                "zebraColor": {
+                  "type": "string",
+                  "description": "隔行背景颜色（斑马纹），如#F2F2F2，不设置则不使用"
+                },
+                "fontSize": {
+                  "type": "number",
+                  "minimum": 0,
+                  "description": "单元格字体大小"
+                },
+                "slideIndex": {
+                  "type": "integer",
+                  "minimum": 0,
+                  "description": "要添加表格的幻灯片索引，从0开始"
+                }
+              },
+              "required": ["x", "y", "width", "height", "slideIndex"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("addTable", "添加表格到幻灯片，一次性填充所有单元格及表头、斑马纹样式", schema),
+            (exchange, args) -> {
+                try {
+                    String csvPath = (String) args.get("csvPath");
+                    float x = ((Number) args.get("x")).floatValue();
+                    float y = ((Number) args.get("y")).floatValue();
+                    float width = ((Number) args.get("width")).floatValue();
+                    float height = ((Number) args.get("height")).floatValue();
+                    boolean headerRow = !args.containsKey("headerRow") || Boolean.TRUE.equals(args.get("headerRow"));
+                    float fontSize = args.containsKey("fontSize") ?
+                        ((Number) args.get("fontSize")).floatValue() : 0f;
+                    int slideIndex = ((Number) args.get("slideIndex")).intValue();
+
+                    TableParams params = TableParams.builder()
+                        .x(x)
+                        .y(y)
+                        .width(width)
+                        .height(height)
+                        .headerRow(headerRow)
+                        .headerColor((String) args.get("headerColor"))
+                        .headerTextColor((String) args.get("headerTextColor"))
+                        .zebraColor((String) args.get("zebraColor"))
+                        .fontSize(fontSize)
+                        .build();
+
+                    AddTableResult result;
+                    if (csvPath != null && !csvPath.isEmpty()) {
+                        result = TableTools.addTableFromCsv(csvPath, params, slideIndex);
+                    } else {
+                        @SuppressWarnings("unchecked")
+                        List<List<Object>> data = (List<List<Object>>) args.get("data");
+                        result = TableTools.addTable(convertToStringRows(data), params, slideIndex);
+                    }
+
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", result.isSuccess());
+                    response.put("shapeIndex", result.getShapeIndex());
+                    response.put("rowCount", result.getRowCount());
+                    response.put("columnCount", result.getColumnCount());
+                    response.put("message", result.getMessage());
+
+                    // 将结果转为JSON字符串
+                    String resultJson = response.toString();
+
+                    // 创建文本内容
+                    List<McpSchema.Content> content = List.of(
+                        new TextContent(resultJson)
+                    );
+
+                    // 使用内容列表创建调用结果
+                    return Mono.just(new McpSchema.CallToolResult(content, false));
+                } catch (Exception e) {
+                    Map<String, Object> errorResponse = new HashMap<>();
+                    errorResponse.put("success", false);
+                    errorResponse.put("shapeIndex", -1);
+                    errorResponse.put("message", "添加表格失败: " + e.getMessage());
+
+                    List<McpSchema.Content> errorContent = List.of(
+                        new TextContent(errorResponse.toString())
+                    );
+
+                    return Mono.just(new McpSchema.CallToolResult(errorContent, false));
+                }
+            }
+        );
+    }
+
+    /**
+     * 将任意类型的二维列表转换为字符串二维列表
+     */
+    private static List<List<String>> convertToStringRows(List<List<Object>> input) {
+        if (input == null) return null;
+
+        List<List<String>> result = new ArrayList<>(input.size());
+        for (List<Object> row : input) {
+            if (row == null) {
+                result.add(List.of());
+                continue;
+            }
+            List<String> cells = new ArrayList<>(row.size());
+            for (Object cell : row) {
+                cells.add(cell == null ? "" : String.valueOf(cell));
+            }
+            result.add(cells);
+        }
+        return result;
+    }
+}
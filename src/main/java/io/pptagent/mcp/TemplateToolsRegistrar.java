@@ -0,0 +1,216 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.slides.SlideTools.AddSlideResult;
+import io.pptagent.tools.template.TemplateTools;
+import io.pptagent.tools.template.TemplateTools.ImportSlidesResult;
+import io.pptagent.tools.template.TemplateTools.TemplateInfo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 模板工具注册类
+ */
+public class TemplateToolsRegistrar {
+
+    /**
+     * 创建所有模板工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createLoadTemplateToolSpec());
+        tools.add(createAddSlideFromTemplateToolSpec());
+        tools.add(createImportSlidesToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 创建加载模板工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createLoadTemplateToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "templatePath": {
+                  "type": "string",
+                  "description": "模板文件(.pptx)路径，相对路径基于工作目录"
+                }
+              },
+              "required": ["templatePath"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("loadTemplate", "加载模板到缓存，返回模板的幻灯片数量及各母版的版式名称", schema),
+            (exchange, args) -> {
+                String templatePath = (String) args.get("templatePath");
+
+                TemplateInfo result = TemplateTools.loadTemplate(templatePath);
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", result.isSuccess());
+                response.put("path", result.getPath());
+                response.put("slideCount", result.getSlideCount());
+                response.put("layouts", result.getLayouts());
+                response.put("message", result.getMessage());
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+
+    /**
+     * 创建从模板添加幻灯片工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createAddSlideFromTemplateToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "templatePath": {
+                  "type": "string",
+                  "description": "模板文件(.pptx)路径，相对路径基于工作目录"
+                },
+                "templateSlideIndex": {
+                  "type": "integer",
+                  "minimum": 0,
+                  "description": "要克隆的模板幻灯片索引，从0开始；与layoutName二选一"
+                },
+                "layoutName": {
+                  "type": "string",
+                  "description": "模板中的版式名称（见loadTemplate返回的layouts）；与templateSlideIndex二选一"
+                },
+                "values": {
+                  "type": "object",
+                  "additionalProperties": {"type": "string"},
+                  "description": "填充内容：键可以是形状名称、占位符类型(TITLE/SUBTITLE/BODY)或文本中{{key}}标记的名称"
+                }
+              },
+              "required": ["templatePath"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("addSlideFromTemplate", "克隆模板幻灯片或使用模板版式添加幻灯片，并填充占位符", schema),
+            (exchange, args) -> {
+                String templatePath = (String) args.get("templatePath");
+                String layoutName = (String) args.get("layoutName");
+                @SuppressWarnings("unchecked")
+                Map<String, Object> rawValues = (Map<String, Object>) args.get("values");
+                Map<String, String> values = new HashMap<>();
+                if (rawValues != null) {
+                    rawValues.forEach((key, value) -> values.put(key, value == null ? "" : String.valueOf(value)));
+                }
+
+                AddSlideResult result;
+                if (layoutName != null && !layoutName.isEmpty()) {
+                    result = TemplateTools.addSlideFromLayout(templatePath, layoutName, values);
+                } else {
+                    int templateSlideIndex = args.containsKey("templateSlideIndex") ?
+                        ((Number) args.get("templateSlideIndex")).intValue() : 0;
+                    result = TemplateTools.addSlideFromTemplate(templatePath, templateSlideIndex, values);
+                }
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", result.isSuccess());
+                response.put("slideIndex", result.getSlideIndex());
+                response.put("message", result.getMessage());
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+
+    /**
+     * 创建导入幻灯片工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createImportSlidesToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {
+                "sourcePath": {
+                  "type": "string",
+                  "description": "源演示文稿(.pptx)路径，如共用的幻灯片库，相对路径基于工作目录"
+                },
+                "indices": {
+                  "type": "array",
+                  "items": {
+                    "type": "integer",
+                    "minimum": 0
+                  },
+                  "description": "要导入的源幻灯片索引，从0开始，按此顺序追加；不填时导入全部幻灯片"
+                }
+              },
+              "required": ["sourcePath"]
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("importSlides", "从其他演示文稿导入幻灯片到当前演示文稿末尾，保留原有格式；源演示文稿缓存在内存中，重复导入无需重新加载", schema),
+            (exchange, args) -> {
+                String sourcePath = (String) args.get("sourcePath");
+                List<Integer> indices = new ArrayList<>();
+                ImportSlidesResult result = null;
+                if (args.get("indices") instanceof List<?> rawIndices) {
+                    for (Object index : rawIndices) {
+                        if (!(index instanceof Number number)) {
+                            result = new ImportSlidesResult(false, List.of(), "无效的幻灯片索引: " + index + "，indices必须是整数数组");
+                            break;
+                        }
+                        indices.add(number.intValue());
+                    }
+                } else if (args.get("indices") != null) {
+                    result = new ImportSlidesResult(false, List.of(), "indices必须是整数数组");
+                }
+
+                if (result == null) {
+                    result = TemplateTools.importSlides(sourcePath, indices);
+                }
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", result.isSuccess());
+                response.put("slideIndexes", result.getSlideIndexes());
+                response.put("message", result.getMessage());
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
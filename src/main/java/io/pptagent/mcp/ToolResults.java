@@ -0,0 +1,56 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 工具调用结果的判断
+ * 各工具以isError=false加上内容中的success=false报告失败（如索引无效、文件不存在、已取消），
+ * 只有在处理函数执行前被拒绝的调用（准入、etag冲突、租约、幂等键冲突、调度中断）才设置isError。
+ */
+final class ToolResults {
+
+    private ToolResults() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 判断工具调用是否成功
+     *
+     * @param result 调用结果
+     * @return isError不为true且内容中没有success=false时返回true
+     */
+    static boolean succeeded(McpSchema.CallToolResult result) {
+        if (result == null || Boolean.TRUE.equals(result.isError())) {
+            return false;
+        }
+        if (result.content() != null) {
+            for (McpSchema.Content content : result.content()) {
+                // 结果内容是HashMap.toString()的形式
+                if (content instanceof TextContent text && text.text() != null
+                    && (text.text().startsWith("{success=false") || text.text().contains(", success=false"))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断已完成的工具调用是否在处理函数执行前被拒绝
+     * 传入的Mono需已缓存（{@link Mono#cache()}）。结果尚未就绪或以异常结束时处理函数可能已经执行，按未拒绝处理
+     *
+     * @param result 已缓存的调用结果
+     * @return isError为true时返回true
+     */
+    static boolean rejected(Mono<McpSchema.CallToolResult> result) {
+        try {
+            McpSchema.CallToolResult value = result.toFuture().getNow(null);
+            return value != null && Boolean.TRUE.equals(value.isError());
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
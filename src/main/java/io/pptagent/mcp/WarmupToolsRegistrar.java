@@ -0,0 +1,94 @@
+package io.pptagent.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.pptagent.tools.warmup.WarmupTools;
+import io.pptagent.tools.warmup.WarmupTools.WarmupStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import reactor.core.publisher.Mono;
+
+/**
+ * 预热工具注册类
+ */
+public class WarmupToolsRegistrar {
+
+    /**
+     * 创建所有预热工具规范
+     */
+    public static List<McpServerFeatures.AsyncToolSpecification> createToolSpecifications() {
+        List<McpServerFeatures.AsyncToolSpecification> tools = new ArrayList<>();
+
+        tools.add(createGetWarmupStatusToolSpec());
+
+        return tools;
+    }
+
+    /**
+     * 包装工具规范，记录每个工具在本进程中的首次调用耗时
+     *
+     * @param spec 原始工具规范
+     * @return 记录首次调用耗时的工具规范
+     */
+    public static McpServerFeatures.AsyncToolSpecification recordFirstCall(McpServerFeatures.AsyncToolSpecification spec) {
+        String toolName = spec.tool().name();
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, args) -> {
+            if (WarmupTools.hasRecorded(toolName)) {
+                return spec.call().apply(exchange, args);
+            }
+            // 工具处理函数同步完成实际工作，调用耗时即为工具耗时
+            long start = System.nanoTime();
+            try {
+                return spec.call().apply(exchange, args);
+            } finally {
+                WarmupTools.recordCall(toolName, (System.nanoTime() - start) / 1_000_000);
+            }
+        });
+    }
+
+    /**
+     * 创建获取预热状态工具规范
+     */
+    private static McpServerFeatures.AsyncToolSpecification createGetWarmupStatusToolSpec() {
+        String schema = """
+            {
+              "type": "object",
+              "properties": {}
+            }
+            """;
+
+        return new McpServerFeatures.AsyncToolSpecification(
+            new McpSchema.Tool("getWarmupStatus", "获取后台预热的状态、各步骤冷启动与预热后的耗时，以及各工具首次调用的耗时", schema),
+            (exchange, args) -> {
+                WarmupStatus result = WarmupTools.getStatus();
+
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("state", result.getState());
+                response.put("elapsedMs", result.getElapsedMs());
+                response.put("firstRoundMs", result.getFirstRoundMs());
+                response.put("lastRoundMs", result.getLastRoundMs());
+                Map<String, Object> firstCalls = new HashMap<>();
+                result.getFirstCalls().forEach((tool, call) -> firstCalls.put(tool,
+                    Map.of("latencyMs", call.latencyMs(), "warmupState", call.warmupState())));
+                response.put("firstCalls", firstCalls);
+                response.put("message", result.getMessage());
+
+                // 将结果转为JSON字符串
+                String resultJson = response.toString();
+
+                // 创建文本内容
+                List<McpSchema.Content> content = List.of(
+                    new TextContent(resultJson)
+                );
+
+                // 使用内容列表创建调用结果
+                return Mono.just(new McpSchema.CallToolResult(content, false));
+            }
+        );
+    }
+}
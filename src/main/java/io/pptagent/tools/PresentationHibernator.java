@@ -0,0 +1,390 @@
+package io.pptagent.tools;
+
+import io.pptagent.App;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 演示文稿休眠 - 将空闲的演示文稿保存为磁盘快照并释放内存
+ * 演示文稿空闲超过阈值（环境变量HIBERNATE_IDLE_MINUTES，默认10分钟，为0时不按空闲时间休眠）
+ * 或堆内存使用率超过阈值时被休眠，下次工具调用访问时由{@link PresentationManager}透明恢复。
+ * 同一工作目录下可能同时运行多个服务器进程（每个STDIO客户端各启动一个），每个进程使用
+ * {@code .pptagent/hibernate/<进程目录>}并持有其中锁文件的文件锁，只清理锁未被持有的目录。
+ * 关闭时全局演示文稿休眠，只有以--resume启动时才恢复最近一次遗留的快照；HTTP会话的连接在
+ * 重启后不复存在，其演示文稿和快照在关闭时直接丢弃。
+ */
+public final class PresentationHibernator {
+    private static final Logger LOGGER = Logger.getLogger(PresentationHibernator.class.getName());
+
+    private static final long DEFAULT_IDLE_MINUTES = 10;
+    private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(readIdleMinutes());
+    // 堆内存使用率超过该比例时，休眠空闲超过PRESSURE_IDLE_MILLIS的演示文稿
+    private static final double HEAP_PRESSURE_RATIO = 0.8;
+    private static final long PRESSURE_IDLE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long SWEEP_INTERVAL_SECONDS = 30;
+    private static final String DEFAULT_SNAPSHOT = "default.pptx";
+    private static final String LOCK_FILE = ".lock";
+    // 没有锁文件的目录可能是其他进程刚创建、尚未加锁的，超过该时间才视为遗留
+    private static final long UNLOCKED_GRACE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final AtomicLong HIBERNATE_COUNT = new AtomicLong();
+    private static final AtomicLong HIBERNATE_MILLIS = new AtomicLong();
+    private static final AtomicLong RESTORE_COUNT = new AtomicLong();
+    private static final AtomicLong RESTORE_MILLIS = new AtomicLong();
+    private static final AtomicLong SNAPSHOT_BYTES = new AtomicLong();
+    private static final AtomicLong RECLAIMED_BYTES = new AtomicLong();
+
+    private static volatile File snapshotDir;
+    private static ScheduledExecutorService scheduler;
+    // 进程存活期间一直持有，进程退出时由操作系统释放
+    private static FileChannel lockChannel;
+    private static FileLock processLock;
+
+    private PresentationHibernator() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 表示休眠统计信息的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class HibernationStats {
+        private final long idleThresholdMinutes;
+        private final int loaded;             // 内存中的演示文稿数
+        private final int hibernated;         // 休眠中的演示文稿数
+        private final long hibernateCount;
+        private final long avgHibernateMs;
+        private final long restoreCount;
+        private final long avgRestoreMs;
+        private final long snapshotBytes;     // 累计写入的快照大小
+        private final long reclaimedBytes;    // 休眠后回收的堆内存估计值
+        private final double heapUsage;       // 当前堆内存使用率
+    }
+
+    /**
+     * 启动休眠调度并清理已退出进程遗留的休眠目录
+     *
+     * @param resume 是否恢复已退出进程在关闭时保存的全局演示文稿快照（取最近一次）
+     * @return 是否关联了可恢复的全局演示文稿快照
+     */
+    public static synchronized boolean start(boolean resume) {
+        if (scheduler != null) {
+            return false;
+        }
+        File root = new File(App.getWorkspace() != null ? App.getWorkspace() : ".", ".pptagent/hibernate");
+        File dir = lockProcessDir(root);
+        if (dir == null) {
+            LOGGER.warning("无法创建或锁定休眠目录，已禁用休眠: " + root.getPath());
+            return false;
+        }
+        snapshotDir = dir;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "presentation-hibernator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(PresentationHibernator::sweep,
+            SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        File resumed = sweepOrphans(root, dir, resume);
+        if (resumed != null) {
+            PresentationManager.getInstance().attachSnapshot(resumed);
+            LOGGER.info("已关联上次关闭时保存的演示文稿快照，将在首次使用时恢复");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 创建本进程的休眠目录并锁定其中的锁文件
+     *
+     * @return 本进程的休眠目录，失败时返回null
+     */
+    private static File lockProcessDir(File root) {
+        String name = ProcessHandle.current().pid() + "-" + Long.toHexString(System.currentTimeMillis());
+        File dir = new File(root, name);
+        try {
+            Files.createDirectories(dir.toPath());
+            lockChannel = FileChannel.open(new File(dir, LOCK_FILE).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            processLock = lockChannel.tryLock();
+            if (processLock == null) {
+                lockChannel.close();
+                lockChannel = null;
+                return null;
+            }
+            return dir;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "锁定休眠目录失败: " + dir.getPath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 清理锁未被持有的进程目录（所属进程已退出）。这些目录中的会话快照无人恢复，直接删除；
+     * 全局演示文稿快照只保留最近一次，resume为true时将其移入本进程目录并返回
+     *
+     * @return 移入本进程目录的全局演示文稿快照，没有时返回null
+     */
+    private static File sweepOrphans(File root, File ownDir, boolean resume) {
+        File[] dirs = root.listFiles(File::isDirectory);
+        if (dirs == null) {
+            return null;
+        }
+        // 全局快照最近保存的排在前面，第一个带全局快照的目录为最近一次关闭的进程
+        List<File> candidates = new ArrayList<>(List.of(dirs));
+        candidates.sort(Comparator.comparingLong((File dir) -> new File(dir, DEFAULT_SNAPSHOT).lastModified())
+            .reversed());
+
+        File resumed = null;
+        boolean latestKept = false;
+        int removed = 0;
+        for (File dir : candidates) {
+            if (dir.equals(ownDir)) {
+                continue;
+            }
+            boolean remove = false;
+            try (FileChannel channel = openLock(dir)) {
+                if (channel == null) {
+                    continue;
+                }
+                FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    // 所属进程仍在运行
+                    continue;
+                }
+                try {
+                    File previous = new File(dir, DEFAULT_SNAPSHOT);
+                    if (!latestKept && previous.isFile()) {
+                        latestKept = true;
+                        if (resume) {
+                            File target = new File(ownDir, DEFAULT_SNAPSHOT);
+                            Files.move(previous.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                            resumed = target;
+                        } else {
+                            // 不恢复时保留最近一次的快照，供之后以--resume启动时使用
+                            deleteExcept(dir, DEFAULT_SNAPSHOT);
+                            continue;
+                        }
+                    }
+                    deleteExcept(dir, null);
+                    remove = true;
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "清理遗留的休眠目录失败: " + dir.getPath(), e);
+            }
+            if (remove) {
+                new File(dir, LOCK_FILE).delete();
+                if (!dir.delete() && dir.exists()) {
+                    LOGGER.warning("删除遗留的休眠目录失败: " + dir.getPath());
+                }
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            LOGGER.info("已清理" + removed + "个已退出进程遗留的休眠目录");
+        }
+        return resumed;
+    }
+
+    /**
+     * 打开进程目录的锁文件；没有锁文件的目录创建不久时可能尚未加锁，跳过，否则按遗留目录处理
+     *
+     * @return 锁文件通道，应跳过该目录时返回null
+     */
+    private static FileChannel openLock(File dir) throws IOException {
+        File lockFile = new File(dir, LOCK_FILE);
+        try {
+            return FileChannel.open(lockFile.toPath(), StandardOpenOption.WRITE);
+        } catch (NoSuchFileException e) {
+            if (System.currentTimeMillis() - dir.lastModified() < UNLOCKED_GRACE_MILLIS) {
+                return null;
+            }
+            return FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        }
+    }
+
+    /**
+     * 删除目录中除锁文件和keep之外的文件
+     */
+    private static void deleteExcept(File dir, String keep) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.equals(LOCK_FILE) && !name.equals(keep) && !file.delete()) {
+                LOGGER.warning("删除遗留的休眠快照失败: " + file.getPath());
+            }
+        }
+    }
+
+    /**
+     * 关闭时休眠全局演示文稿以保存未完成的工作（以--resume启动时恢复），会话演示文稿及其快照直接释放
+     */
+    public static synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (snapshotDir == null) {
+            return;
+        }
+        for (PresentationManager manager : PresentationManager.getManagers()) {
+            if (manager.isDefault()) {
+                hibernate(manager);
+            } else {
+                manager.discardSnapshot();
+                manager.dispose();
+            }
+        }
+        // 没有需要保留的全局快照时删除本进程目录
+        if (!new File(snapshotDir, DEFAULT_SNAPSHOT).isFile()) {
+            try {
+                processLock.release();
+                lockChannel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "释放休眠目录锁失败", e);
+            }
+            deleteExcept(snapshotDir, null);
+            new File(snapshotDir, LOCK_FILE).delete();
+            snapshotDir.delete();
+        }
+    }
+
+    /**
+     * 堆内存紧张时立即休眠空闲超过30秒的演示文稿，不等待下一次定时检查
+     *
+     * @return 休眠的演示文稿数
+     */
+    public static int relievePressure() {
+        if (snapshotDir == null) {
+            return 0;
+        }
+        return hibernateIdle(true);
+    }
+
+    /**
+     * 获取休眠统计信息
+     */
+    public static HibernationStats getStats() {
+        int loaded = 0;
+        int hibernated = 0;
+        for (PresentationManager manager : PresentationManager.getManagers()) {
+            if (manager.isHibernated()) {
+                hibernated++;
+            } else if (manager.isLoaded()) {
+                loaded++;
+            }
+        }
+        long hibernates = HIBERNATE_COUNT.get();
+        long restores = RESTORE_COUNT.get();
+        return new HibernationStats(TimeUnit.MILLISECONDS.toMinutes(IDLE_MILLIS), loaded, hibernated,
+            hibernates, hibernates > 0 ? HIBERNATE_MILLIS.get() / hibernates : 0,
+            restores, restores > 0 ? RESTORE_MILLIS.get() / restores : 0,
+            SNAPSHOT_BYTES.get(), RECLAIMED_BYTES.get(), heapUsage());
+    }
+
+    /**
+     * 记录一次恢复耗时
+     */
+    static void recordRestore(long millis) {
+        RESTORE_COUNT.incrementAndGet();
+        RESTORE_MILLIS.addAndGet(millis);
+    }
+
+    /**
+     * 按最近访问时间从早到晚检查，休眠空闲超时的演示文稿；堆内存紧张时使用更短的空闲阈值
+     */
+    private static void sweep() {
+        try {
+            hibernateIdle(heapUsage() > HEAP_PRESSURE_RATIO);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "休眠检查失败", e);
+        }
+    }
+
+    private static synchronized int hibernateIdle(boolean pressure) {
+        long now = System.currentTimeMillis();
+        List<PresentationManager> managers = PresentationManager.getManagers();
+        managers.sort(Comparator.comparingLong(PresentationManager::getLastAccess));
+
+        Runtime runtime = Runtime.getRuntime();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        int count = 0;
+        for (PresentationManager manager : managers) {
+            long idle = now - manager.getLastAccess();
+            boolean idleExpired = IDLE_MILLIS > 0 && idle >= IDLE_MILLIS;
+            if ((idleExpired || (pressure && idle >= PRESSURE_IDLE_MILLIS)) && hibernate(manager)) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            // 休眠很少发生，主动回收一次以便及时归还内存并统计回收量
+            System.gc();
+            long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+            RECLAIMED_BYTES.addAndGet(Math.max(0, usedBefore - usedAfter));
+            LOGGER.info("已休眠" + count + "个演示文稿" + (pressure ? "（堆内存紧张）" : "")
+                + "，回收约" + Math.max(0, usedBefore - usedAfter) / 1024 / 1024 + "MB");
+        }
+        return count;
+    }
+
+    private static boolean hibernate(PresentationManager manager) {
+        File file = new File(snapshotDir, manager.getId() + ".pptx");
+        long start = System.nanoTime();
+        try {
+            if (!manager.hibernate(file)) {
+                return false;
+            }
+            HIBERNATE_COUNT.incrementAndGet();
+            HIBERNATE_MILLIS.addAndGet((System.nanoTime() - start) / 1_000_000);
+            SNAPSHOT_BYTES.addAndGet(file.length());
+            LOGGER.info("演示文稿已休眠: " + manager.getId());
+            return true;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "演示文稿休眠失败: " + manager.getId(), e);
+            return false;
+        }
+    }
+
+    private static double heapUsage() {
+        Runtime runtime = Runtime.getRuntime();
+        return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory();
+    }
+
+    private static long readIdleMinutes() {
+        String value = System.getenv("HIBERNATE_IDLE_MINUTES");
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_IDLE_MINUTES;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("无效的HIBERNATE_IDLE_MINUTES: " + value + "，使用默认值" + DEFAULT_IDLE_MINUTES);
+            return DEFAULT_IDLE_MINUTES;
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package io.pptagent.tools;
 
 import com.aspose.slides.Presentation;
+import com.aspose.slides.SaveFormat;
+import com.aspose.slides.SlideLayoutType;
 import com.aspose.slides.SlideSizeType;
-import com.aspose.slides.SlideSizeScaleType;
-import lombok.Getter;
+import io.pptagent.tools.snapshot.SnapshotReads.DeckView;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,28 +28,115 @@ import java.util.logging.Logger;
  */
 public final class PresentationManager {
     private static final Logger LOGGER = Logger.getLogger(PresentationManager.class.getName());
-    private static final PresentationManager INSTANCE = new PresentationManager();
+    // 所有存活的管理器，供休眠调度遍历；会话释放后随垃圾回收自动移除
+    private static final Set<PresentationManager> MANAGERS =
+        Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+    private static final PresentationManager INSTANCE = new PresentationManager("default");
+    // 当前线程绑定的会话管理器，HTTP模式下每个连接使用独立的演示文稿
+    private static final ThreadLocal<PresentationManager> BOUND = new ThreadLocal<>();
+    // 延迟创建或从休眠快照恢复演示文稿后通知的监听器
+    private static final List<LoadListener> LOAD_LISTENERS = new CopyOnWriteArrayList<>();
 
-    /**
-     * -- GETTER --
-     *  获取当前演示文稿实例
-     *
-     */
-    @Getter
+    private final String id;
     private Presentation presentation;
     private final AtomicInteger currentSlideIndex = new AtomicInteger(0);
+    // 延迟创建：首次访问时才创建默认演示文稿，避免启动时加载Aspose
+    private volatile boolean lazyInit;
+    // 休眠快照：不为null时演示文稿已保存到磁盘并释放，下次访问时恢复
+    private volatile File snapshot;
+    private volatile long lastAccess = System.currentTimeMillis();
+    // 正在执行的工具调用数，大于0时不允许休眠
+    private final AtomicInteger activeUses = new AtomicInteger();
+    // 内容版本：修改后递增，读取结果按版本缓存
+    private final AtomicLong changeCount = new AtomicLong();
+    private final AtomicLong deckVersion = new AtomicLong();
+    private final Map<Integer, Long> slideVersions = new ConcurrentHashMap<>();
+    // 编辑锁：修改演示文稿的调用串行执行，快照读取只在快照过期时获取
+    private final Object editLock = new Object();
+    // 最近一次提交后的只读快照
+    private volatile DeckView view;
     
-    private PresentationManager() {
-        // 私有构造函数
+    /**
+     * 演示文稿加载监听器，在持有管理器锁时调用，不应再等待其他演示文稿
+     */
+    @FunctionalInterface
+    public interface LoadListener {
+        void onLoad(PresentationManager manager, Presentation presentation);
+    }
+
+    private PresentationManager(String id) {
+        this.id = id;
+        MANAGERS.add(this);
     }
     
     /**
-     * 获取PresentationManager单例实例
+     * 获取PresentationManager实例
+     * 当前线程绑定了会话管理器时返回会话管理器，否则返回全局单例
      * 
      * @return PresentationManager实例
      */
     public static PresentationManager getInstance() {
-        return INSTANCE;
+        PresentationManager bound = BOUND.get();
+        return bound != null ? bound : INSTANCE;
+    }
+    
+    /**
+     * 创建独立于全局单例的会话管理器
+     * 
+     * @return 新的PresentationManager实例
+     */
+    public static PresentationManager newSessionInstance() {
+        return new PresentationManager("session-" + UUID.randomUUID());
+    }
+    
+    /**
+     * 创建管理给定临时演示文稿的管理器，用于在工作线程中并行构建幻灯片
+     * 临时管理器不参与休眠，使用完毕后由调用方释放
+     * 
+     * @param presentation 临时演示文稿
+     * @return 新的PresentationManager实例
+     */
+    public static PresentationManager newScratchInstance(Presentation presentation) {
+        PresentationManager manager = new PresentationManager("scratch-" + UUID.randomUUID());
+        MANAGERS.remove(manager);
+        manager.presentation = presentation;
+        return manager;
+    }
+    
+    /**
+     * 是否为全局单例（STDIO模式使用的演示文稿）
+     */
+    public boolean isDefault() {
+        return this == INSTANCE;
+    }
+    
+    /**
+     * 获取所有存活的管理器（全局单例及各会话）
+     */
+    public static List<PresentationManager> getManagers() {
+        synchronized (MANAGERS) {
+            return new ArrayList<>(MANAGERS);
+        }
+    }
+    
+    /**
+     * 添加演示文稿加载监听器，延迟创建或从休眠快照恢复演示文稿后调用
+     */
+    public static void addLoadListener(LoadListener listener) {
+        LOAD_LISTENERS.add(listener);
+    }
+    
+    /**
+     * 将会话管理器绑定到当前线程，之后的{@link #getInstance()}返回该管理器
+     * 
+     * @param manager 会话管理器，为null时解除绑定
+     */
+    public static void bind(PresentationManager manager) {
+        if (manager == null) {
+            BOUND.remove();
+        } else {
+            BOUND.set(manager);
+        }
     }
     
     /**
@@ -45,15 +144,16 @@ public final class PresentationManager {
      * 
      * @return 操作结果
      */
-    public boolean createPresentation() {
+    public synchronized boolean createPresentation() {
         try {
             if (presentation != null) {
                 presentation.dispose();
             }
-            presentation = new Presentation();
-            
-            // 设置演示文稿尺寸为16:9
-            presentation.getSlideSize().setSize(1600, 900, SlideSizeScaleType.EnsureFit);
+            // 新演示文稿取代休眠中的旧演示文稿
+            discardSnapshot();
+            // 从对象池取出已设置16:9尺寸的空白演示文稿
+            presentation = PresentationPool.acquire();
+            markDeckChanged();
             
             currentSlideIndex.set(0);
             return true;
@@ -63,13 +163,51 @@ public final class PresentationManager {
         }
     }
 
+    /**
+     * 启用延迟创建，首次获取演示文稿时创建默认演示文稿并添加一张空白幻灯片
+     */
+    public void enableLazyInit() {
+        lazyInit = true;
+    }
+    
+    /**
+     * 获取当前演示文稿实例
+     * 
+     * 演示文稿处于休眠状态时从磁盘快照恢复
+     * 
+     * @return 演示文稿，尚未创建时返回null
+     */
+    public synchronized Presentation getPresentation() {
+        lastAccess = System.currentTimeMillis();
+        boolean loaded = false;
+        if (snapshot != null) {
+            restore();
+            loaded = presentation != null;
+        }
+        if (lazyInit) {
+            lazyInit = false;
+            if (presentation == null && createPresentation()) {
+                presentation.getSlides().addEmptySlide(
+                    presentation.getMasters().get_Item(0).getLayoutSlides().getByType(SlideLayoutType.Blank));
+                LOGGER.info("已延迟创建默认演示文稿");
+                loaded = true;
+            }
+        }
+        if (loaded) {
+            for (LoadListener listener : LOAD_LISTENERS) {
+                listener.onLoad(this, presentation);
+            }
+        }
+        return presentation;
+    }
+    
     /**
      * 获取当前演示文稿实例的Optional包装
      * 
      * @return 包含演示文稿的Optional
      */
     public Optional<Presentation> getPresentationOptional() {
-        return Optional.ofNullable(presentation);
+        return Optional.ofNullable(getPresentation());
     }
     
     /**
@@ -98,9 +236,172 @@ public final class PresentationManager {
     }
     
     /**
-     * 释放资源
+     * 获取管理器标识，全局单例为default
+     */
+    public String getId() {
+        return id;
+    }
+    
+    /**
+     * 最近一次访问演示文稿的时间（毫秒时间戳）
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+    
+    /**
+     * 是否持有内存中的演示文稿
+     */
+    public synchronized boolean isLoaded() {
+        return presentation != null;
+    }
+    
+    /**
+     * 是否处于休眠状态
+     */
+    public boolean isHibernated() {
+        return snapshot != null;
+    }
+    
+    /**
+     * 标记单张幻灯片的内容已修改
+     * 
+     * @param slideIndex 幻灯片索引
+     */
+    public void markSlideChanged(int slideIndex) {
+        slideVersions.merge(slideIndex, 1L, Long::sum);
+        changeCount.incrementAndGet();
+    }
+    
+    /**
+     * 标记整个演示文稿已修改（增删幻灯片、新建演示文稿等），所有幻灯片的版本随之改变
+     */
+    public void markDeckChanged() {
+        deckVersion.incrementAndGet();
+        slideVersions.clear();
+        changeCount.incrementAndGet();
+    }
+    
+    /**
+     * 获取幻灯片的内容版本，幻灯片或整个演示文稿修改后改变
+     * 
+     * @param slideIndex 幻灯片索引
+     * @return 版本标识
+     */
+    public String getSlideVersion(int slideIndex) {
+        return deckVersion.get() + "." + slideVersions.getOrDefault(slideIndex, 0L);
+    }
+    
+    /**
+     * 获取修改次数，任何修改后递增，可作为整个演示文稿的版本
+     */
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+    
+    /**
+     * 获取编辑锁，修改演示文稿期间持有
+     */
+    public Object getEditLock() {
+        return editLock;
+    }
+    
+    /**
+     * 获取最近一次提交的只读快照，尚未捕获时返回null
+     */
+    public DeckView getView() {
+        return view;
+    }
+    
+    /**
+     * 发布新的只读快照
+     * 
+     * @param view 快照
+     */
+    public void setView(DeckView view) {
+        this.view = view;
+    }
+    
+    /**
+     * 标记工具调用开始，调用期间不会被休眠
+     */
+    public void beginUse() {
+        activeUses.incrementAndGet();
+        lastAccess = System.currentTimeMillis();
+    }
+    
+    /**
+     * 标记工具调用结束
+     */
+    public void endUse() {
+        activeUses.decrementAndGet();
+        lastAccess = System.currentTimeMillis();
+    }
+    
+    /**
+     * 将演示文稿保存为磁盘快照并释放内存，下次访问时自动恢复
+     * 
+     * @param file 快照文件
+     * @return 是否已休眠，演示文稿不存在或正在使用时返回false
+     */
+    public synchronized boolean hibernate(File file) {
+        if (presentation == null || activeUses.get() > 0) {
+            return false;
+        }
+        presentation.save(file.getPath(), SaveFormat.Pptx);
+        presentation.dispose();
+        presentation = null;
+        snapshot = file;
+        return true;
+    }
+    
+    /**
+     * 关联已有的磁盘快照（如上次关闭时保存的快照），下次访问时恢复
+     * 
+     * @param file 快照文件
+     */
+    public synchronized void attachSnapshot(File file) {
+        if (presentation == null) {
+            snapshot = file;
+            lazyInit = false;
+        }
+    }
+    
+    /**
+     * 删除休眠快照
+     */
+    public synchronized void discardSnapshot() {
+        if (snapshot != null) {
+            if (!snapshot.delete()) {
+                LOGGER.warning("删除休眠快照失败: " + snapshot.getPath());
+            }
+            snapshot = null;
+        }
+    }
+    
+    /**
+     * 从磁盘快照恢复演示文稿，恢复失败时保留快照文件
+     */
+    private void restore() {
+        File file = snapshot;
+        long start = System.nanoTime();
+        try {
+            presentation = new Presentation(file.getPath());
+            snapshot = null;
+            if (!file.delete()) {
+                LOGGER.warning("删除休眠快照失败: " + file.getPath());
+            }
+            PresentationHibernator.recordRestore((System.nanoTime() - start) / 1_000_000);
+            LOGGER.info("已从休眠快照恢复演示文稿: " + id);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "从休眠快照恢复演示文稿失败: " + file.getPath(), e);
+        }
+    }
+    
+    /**
+     * 释放内存中的演示文稿，休眠快照保留在磁盘上
      */
-    public void dispose() {
+    public synchronized void dispose() {
         if (presentation != null) {
             presentation.dispose();
             presentation = null;
@@ -0,0 +1,143 @@
+package io.pptagent.tools;
+
+import com.aspose.slides.ILayoutSlideCollection;
+import com.aspose.slides.Presentation;
+import com.aspose.slides.SlideLayoutType;
+import com.aspose.slides.SlideSizeScaleType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 演示文稿对象池 - 预先构建好尺寸和版式的空白演示文稿
+ * 创建演示文稿时直接从池中取出，池在后台线程中补充。
+ * 池大小由环境变量PRESENTATION_POOL_SIZE配置，默认为2，为0时不使用对象池。
+ */
+public final class PresentationPool {
+    private static final Logger LOGGER = Logger.getLogger(PresentationPool.class.getName());
+
+    private static final int DEFAULT_POOL_SIZE = 2;
+    private static final int POOL_SIZE = readPoolSize();
+
+    private static final BlockingQueue<Presentation> POOL = new ArrayBlockingQueue<>(Math.max(POOL_SIZE, 1));
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicBoolean REFILLING = new AtomicBoolean();
+    private static final ExecutorService REFILLER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "presentation-pool");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private PresentationPool() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 表示对象池统计信息的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PoolStats {
+        private final int capacity;
+        private final int available;
+        private final long hits;
+        private final long misses;
+    }
+
+    /**
+     * 取出一个空白演示文稿，池为空时同步创建，并在后台补充
+     *
+     * @return 已设置16:9尺寸的空白演示文稿
+     */
+    public static Presentation acquire() {
+        Presentation pres = POOL.poll();
+        if (pres != null) {
+            HITS.incrementAndGet();
+        } else {
+            MISSES.incrementAndGet();
+            pres = newBlankPresentation();
+        }
+        refillAsync();
+        return pres;
+    }
+
+    /**
+     * 在后台将池补满
+     */
+    public static void refillAsync() {
+        if (POOL_SIZE <= 0 || POOL.size() >= POOL_SIZE || !REFILLING.compareAndSet(false, true)) {
+            return;
+        }
+        REFILLER.execute(() -> {
+            try {
+                while (POOL.size() < POOL_SIZE) {
+                    Presentation pres = newBlankPresentation();
+                    if (!POOL.offer(pres)) {
+                        pres.dispose();
+                        break;
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "补充演示文稿对象池失败", e);
+            } finally {
+                REFILLING.set(false);
+            }
+        });
+    }
+
+    /**
+     * 获取对象池统计信息
+     */
+    public static PoolStats getStats() {
+        return new PoolStats(POOL_SIZE, POOL.size(), HITS.get(), MISSES.get());
+    }
+
+    /**
+     * 释放池中所有演示文稿
+     */
+    public static void clear() {
+        REFILLER.shutdownNow();
+        Presentation pres;
+        while ((pres = POOL.poll()) != null) {
+            pres.dispose();
+        }
+    }
+
+    /**
+     * 创建空白演示文稿：设置16:9尺寸并提前解析常用版式
+     */
+    private static Presentation newBlankPresentation() {
+        Presentation pres = new Presentation();
+        pres.getSlideSize().setSize(1600, 900, SlideSizeScaleType.EnsureFit);
+
+        ILayoutSlideCollection layouts = pres.getMasters().get_Item(0).getLayoutSlides();
+        for (byte type : new byte[] {SlideLayoutType.Blank, SlideLayoutType.Title, SlideLayoutType.TitleOnly,
+                SlideLayoutType.TitleAndObject}) {
+            layouts.getByType(type);
+        }
+        return pres;
+    }
+
+    private static int readPoolSize() {
+        String value = System.getenv("PRESENTATION_POOL_SIZE");
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_POOL_SIZE;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("无效的PRESENTATION_POOL_SIZE: " + value + "，使用默认值" + DEFAULT_POOL_SIZE);
+            return DEFAULT_POOL_SIZE;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package io.pptagent.tools.admission;
+
+import com.aspose.slides.Presentation;
+import io.pptagent.App;
+import io.pptagent.tools.PresentationHibernator;
+import io.pptagent.tools.PresentationManager;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import javax.management.NotificationEmitter;
+
+/**
+ * 堆内存准入控制 - 在堆内存接近上限时排队、降级或拒绝高开销的工具调用
+ * 每次调用按工具类型和参数（载荷大小、幻灯片数、文件大小）估算所需内存，
+ * 与最近一次GC后的堆占用及正在执行调用的预留量比较：
+ * 余量足够时立即放行；不足时先休眠空闲演示文稿释放内存（降级），再排队等待余量；
+ * 等待超时则拒绝，由调用方稍后重试，避免内存溢出导致整个进程及所有会话中断。
+ */
+public final class AdmissionController {
+    private static final Logger LOGGER = Logger.getLogger(AdmissionController.class.getName());
+
+    private static final long MB = 1024 * 1024;
+    // 预留量与GC后堆占用之和不超过最大堆的该比例
+    private static final double HEAP_LIMIT_RATIO = 0.9;
+    // GC后堆占用低于该比例且没有其他调用在执行时，超大调用也直接放行
+    private static final double LOW_WATER_RATIO = 0.7;
+    private static final long QUEUE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final long RETRY_AFTER_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final Object LOCK = new Object();
+    private static long reservedBytes;
+    private static int inFlight;
+    private static volatile long usedAfterGc = -1;
+
+    private static final AtomicLong ADMITTED = new AtomicLong();
+    private static final AtomicLong QUEUED = new AtomicLong();
+    private static final AtomicLong DEGRADED = new AtomicLong();
+    private static final AtomicLong REJECTED = new AtomicLong();
+    private static final AtomicLong OUT_OF_MEMORY = new AtomicLong();
+
+    static {
+        // 每次GC结束后记录堆占用，GC后的占用才反映真实的存活对象
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener((notification, handback) -> {
+                    if (GC_NOTIFICATION.equals(notification.getType())) {
+                        usedAfterGc = MEMORY.getHeapMemoryUsage().getUsed();
+                        synchronized (LOCK) {
+                            LOCK.notifyAll();
+                        }
+                    }
+                }, null, null);
+            }
+        }
+    }
+
+    private AdmissionController() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 准入许可，调用结束后必须释放
+     */
+    public static final class Permit implements AutoCloseable {
+        private final long bytes;
+        private boolean released;
+
+        private Permit(long bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            synchronized (LOCK) {
+                reservedBytes -= bytes;
+                inFlight--;
+                LOCK.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 调用被拒绝时抛出，调用方可在retryAfterMillis之后重试
+     */
+    @Getter
+    public static class RejectedException extends Exception {
+        private final long retryAfterMillis;
+
+        public RejectedException(String message, long retryAfterMillis) {
+            super(message);
+            this.retryAfterMillis = retryAfterMillis;
+        }
+    }
+
+    /**
+     * 表示准入统计信息的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class AdmissionStats {
+        private final long maxHeapBytes;
+        private final long usedAfterGcBytes;
+        private final long reservedBytes;
+        private final int inFlight;
+        private final long admitted;
+        private final long queued;
+        private final long degraded;
+        private final long rejected;
+        private final long outOfMemory;
+    }
+
+    /**
+     * 为工具调用申请准入
+     *
+     * @param toolName 工具名称
+     * @param args 调用参数
+     * @return 准入许可
+     * @throws RejectedException 等待超时仍无足够堆内存时抛出
+     */
+    public static Permit acquire(String toolName, Map<String, Object> args) throws RejectedException {
+        long cost = estimateCost(toolName, args);
+        if (cost <= 0) {
+            return reserve(0);
+        }
+        synchronized (LOCK) {
+            if (fits(cost)) {
+                return reserve(cost);
+            }
+        }
+
+        // 降级：先休眠空闲演示文稿释放内存
+        QUEUED.incrementAndGet();
+        if (PresentationHibernator.relievePressure() > 0) {
+            DEGRADED.incrementAndGet();
+        }
+        long deadline = System.currentTimeMillis() + QUEUE_TIMEOUT_MILLIS;
+        synchronized (LOCK) {
+            while (!fits(cost)) {
+                long wait = deadline - System.currentTimeMillis();
+                if (wait <= 0) {
+                    REJECTED.incrementAndGet();
+                    LOGGER.warning("堆内存不足，拒绝工具调用: " + toolName + "，预计需要" + cost / MB + "MB");
+                    throw new RejectedException("服务器内存紧张，" + toolName + "暂时无法执行（预计需要"
+                        + cost / MB + "MB），请稍后重试", RETRY_AFTER_MILLIS);
+                }
+                try {
+                    LOCK.wait(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    REJECTED.incrementAndGet();
+                    throw new RejectedException("等待内存时被中断，请稍后重试", RETRY_AFTER_MILLIS);
+                }
+            }
+            return reserve(cost);
+        }
+    }
+
+    /**
+     * 记录一次被捕获的内存溢出
+     */
+    public static void recordOutOfMemory(String toolName) {
+        OUT_OF_MEMORY.incrementAndGet();
+        LOGGER.severe("工具调用内存溢出: " + toolName);
+    }
+
+    /**
+     * 获取准入统计信息
+     */
+    public static AdmissionStats getStats() {
+        synchronized (LOCK) {
+            return new AdmissionStats(MEMORY.getHeapMemoryUsage().getMax(), currentUsed(), reservedBytes, inFlight,
+                ADMITTED.get(), QUEUED.get(), DEGRADED.get(), REJECTED.get(), OUT_OF_MEMORY.get());
+        }
+    }
+
+    /**
+     * 估算工具调用所需的堆内存，返回0表示开销可忽略
+     */
+    static long estimateCost(String toolName, Map<String, Object> args) {
+        long payload = payloadSize(args);
+        return switch (toolName) {
+            case "savePresentation" -> slideCount() * ("PDF".equalsIgnoreCase(String.valueOf(args.get("format")))
+                ? 4 * MB : MB) + 16 * MB;
+            case "addPictureFrame" -> fileSize(args.get("imagePath")) * 6 + 8 * MB;
+            case "addSvgImage", "setBackgroundSvg" -> payload * 8 + 8 * MB;
+            case "addChart", "updateChartData" -> payload * 4 + 8 * MB;
+            case "addTable" -> payload * 4 + 2 * MB;
+            case "loadTemplate", "addSlideFromTemplate" -> fileSize(args.get("templatePath")) * 4 + 8 * MB;
+            case "importSlides" -> fileSize(args.get("sourcePath")) * 4 + 8 * MB;
+            case "buildPresentationFromSpec" -> payload * 8 + 32 * MB;
+            case "createPresentation" -> 8 * MB;
+            case "startMailMerge" -> fileSize(args.get("templatePath")) * 4
+                * Runtime.getRuntime().availableProcessors() + 16 * MB;
+            default -> 0;
+        };
+    }
+
+    private static Permit reserve(long cost) {
+        synchronized (LOCK) {
+            reservedBytes += cost;
+            inFlight++;
+        }
+        ADMITTED.incrementAndGet();
+        return new Permit(cost);
+    }
+
+    private static boolean fits(long cost) {
+        synchronized (LOCK) {
+            long max = MEMORY.getHeapMemoryUsage().getMax();
+            if (max <= 0) {
+                return true;
+            }
+            long used = currentUsed();
+            if (reservedBytes == 0 && used < max * LOW_WATER_RATIO) {
+                return true;
+            }
+            return used + reservedBytes + cost <= max * HEAP_LIMIT_RATIO;
+        }
+    }
+
+    /**
+     * 最近一次GC后的堆占用，尚未发生GC时使用当前占用
+     */
+    private static long currentUsed() {
+        long afterGc = usedAfterGc;
+        return afterGc >= 0 ? afterGc : MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long slideCount() {
+        PresentationManager manager = PresentationManager.getInstance();
+        if (!manager.isLoaded()) {
+            return 20;
+        }
+        Presentation pres = manager.getPresentation();
+        return pres != null ? pres.getSlides().size() : 0;
+    }
+
+    /**
+     * 获取工具参数中文件的大小，相对路径与各工具一样基于工作目录解析
+     */
+    private static long fileSize(Object path) {
+        if (!(path instanceof String value) || value.trim().isEmpty()) {
+            return 0;
+        }
+        File file = new File(value);
+        if (!file.isAbsolute()) {
+            file = new File(App.getWorkspace(), value);
+        }
+        return file.length();
+    }
+
+    private static long payloadSize(Object value) {
+        if (value instanceof String text) {
+            return text.length();
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 0;
+            for (Object item : map.values()) {
+                size += payloadSize(item);
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> items) {
+            long size = 0;
+            for (Object item : items) {
+                size += payloadSize(item);
+            }
+            return size;
+        }
+        return value != null ? 8 : 0;
+    }
+}
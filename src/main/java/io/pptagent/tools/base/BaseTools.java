@@ -2,11 +2,17 @@ package io.pptagent.tools.base;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 
+import com.aspose.slides.LoadOptions;
+import com.aspose.slides.PdfOptions;
 import com.aspose.slides.Presentation;
 import com.aspose.slides.SaveFormat;
 import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.cancel.CancellationToken;
+import io.pptagent.tools.cancel.CancellationToken.CancelledException;
 import io.pptagent.App;
 
 import lombok.AllArgsConstructor;
@@ -37,7 +43,7 @@ public class BaseTools {
      * @param format 格式字符串
      * @return 保存格式值
      */
-    private static int getFormatValue(String format) {
+    public static int getFormatValue(String format) {
         if (format == null) {
             return SaveFormat.Pptx;
         }
@@ -90,15 +96,13 @@ public class BaseTools {
      */
     public static boolean savePresentation(String filePath, String format) {
         try {
-            Presentation pres = PresentationManager.getInstance().getPresentation();
-            if (pres == null) {
-                return false;
-            }
-            
             int saveFormat = getFormatValue(format);
-            pres.save(filePath, saveFormat);
-            return true;
+            return save(PresentationManager.getInstance(), filePath, saveFormat);
+        } catch (CancelledException e) {
+            throw e;
         } catch (Exception e) {
+            // Aspose包装了回调中抛出的取消异常时，按取消处理
+            CancellationToken.current().checkpoint();
             LOGGER.log(Level.SEVERE, "保存演示文稿失败: " + filePath, e);
             return false;
         }
@@ -124,23 +128,69 @@ public class BaseTools {
      */
     public static SaveResult savePresentationEnhanced(String filePath, String format) {
         try {
-            Presentation pres = PresentationManager.getInstance().getPresentation();
-            if (pres == null) {
-                return new SaveResult(false, "没有活动的演示文稿", filePath);
-            }
-            
+            String fullPath = getFullPath(filePath);
             try {
-                String fullPath = getFullPath(filePath);
                 int saveFormat = getFormatValue(format);
-                pres.save(fullPath, saveFormat);
+                if (!save(PresentationManager.getInstance(), fullPath, saveFormat)) {
+                    return new SaveResult(false, "没有活动的演示文稿", filePath);
+                }
                 return new SaveResult(true, "保存成功", fullPath);
             } catch (Exception e) {
+                if (CancellationToken.current().isCancelled()) {
+                    // 取消时删除写了一半的文件，并将取消传递给调用方
+                    new File(fullPath).delete();
+                    CancellationToken.current().checkpoint();
+                }
                 LOGGER.log(Level.SEVERE, "保存演示文稿失败", e);
                 return new SaveResult(false, "保存失败: " + e.getMessage(), filePath);
             }
+        } catch (CancelledException e) {
+            throw e;
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "保存演示文稿失败", e);
             return new SaveResult(false, "保存失败: " + e.getMessage(), filePath);
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * 保存演示文稿，导出PDF时汇报进度，取消后中止保存
+     * 导出PDF时只在编辑锁内复制当前演示文稿，从副本渲染，渲染期间同一会话的编辑可以继续进行
+     * 
+     * @return 没有活动的演示文稿时返回false
+     */
+    private static boolean save(PresentationManager manager, String path, int saveFormat) {
+        CancellationToken token = CancellationToken.current();
+        token.checkpoint();
+        if (saveFormat != SaveFormat.Pdf) {
+            synchronized (manager.getEditLock()) {
+                Presentation pres = manager.getPresentation();
+                if (pres == null) {
+                    return false;
+                }
+                pres.save(path, saveFormat);
+                return true;
+            }
+        }
+        
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        synchronized (manager.getEditLock()) {
+            Presentation pres = manager.getPresentation();
+            if (pres == null) {
+                return false;
+            }
+            pres.save(copy, SaveFormat.Pptx);
+        }
+        
+        LoadOptions loadOptions = new LoadOptions();
+        loadOptions.setInterruptionToken(token.interruptionToken());
+        Presentation snapshot = new Presentation(new ByteArrayInputStream(copy.toByteArray()), loadOptions);
+        try {
+            PdfOptions options = new PdfOptions();
+            options.setProgressCallback(token.saveProgress("导出PDF"));
+            snapshot.save(path, saveFormat, options);
+            return true;
+        } finally {
+            snapshot.dispose();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package io.pptagent.tools.cancel;
+
+import com.aspose.slides.IInterruptionToken;
+import com.aspose.slides.IProgressCallback;
+import com.aspose.slides.InterruptionTokenSource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * 协作式取消令牌 - 贯穿一次工具调用中的耗时操作
+ * 工具调用开始时绑定到当前线程，耗时操作在批量循环之间调用{@link #checkpoint()}，
+ * Aspose的保存/渲染通过{@link #saveProgress(String)}回调汇报进度并在取消后中止，
+ * 加载通过{@link #interruptionToken()}获取Aspose中断令牌。
+ * 调用方通过操作ID取消，或在超过TOOL_TIMEOUT_SECONDS秒（默认0，不限制）后自动取消。
+ */
+public final class CancellationToken implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(CancellationToken.class.getName());
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(readTimeoutSeconds());
+    // 进度通知的最小间隔，避免刷屏
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+    private static final Map<String, CancellationToken> ACTIVE = new ConcurrentHashMap<>();
+    // 未处于工具调用中时使用的空令牌，永远不会被取消
+    private static final CancellationToken NONE = new CancellationToken(null, null, null);
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "operation-timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String id;
+    private final String toolName;
+    private final ProgressListener listener;
+    private final long startTime = System.currentTimeMillis();
+    private final List<InterruptionTokenSource> interruptionSources = new CopyOnWriteArrayList<>();
+    private volatile String cancelReason;
+    private volatile double progress;
+    private volatile long lastProgressNanos;
+    private ScheduledFuture<?> timeout;
+
+    private CancellationToken(String id, String toolName, ProgressListener listener) {
+        this.id = id;
+        this.toolName = toolName;
+        this.listener = listener;
+    }
+
+    /**
+     * 进度监听器
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param token 所属操作
+         * @param progress 已完成量
+         * @param total 总量
+         * @param message 当前步骤描述
+         */
+        void onProgress(CancellationToken token, double progress, double total, String message);
+    }
+
+    /**
+     * 操作被取消时抛出
+     */
+    @Getter
+    public static class CancelledException extends RuntimeException {
+        private final String operationId;
+
+        public CancelledException(String operationId, String message) {
+            super(message);
+            this.operationId = operationId;
+        }
+    }
+
+    /**
+     * 表示进行中操作的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class OperationInfo {
+        private final String operationId;
+        private final String toolName;
+        private final long elapsedMs;
+        private final double progress;
+        private final boolean cancelled;
+    }
+
+    /**
+     * 开始一个可取消的操作并绑定到当前线程，操作结束时必须关闭
+     *
+     * @param toolName 工具名称
+     * @param listener 进度监听器，可为null
+     * @return 取消令牌
+     */
+    public static CancellationToken begin(String toolName, ProgressListener listener) {
+        CancellationToken token = new CancellationToken(UUID.randomUUID().toString().substring(0, 8), toolName, listener);
+        ACTIVE.put(token.id, token);
+        CURRENT.set(token);
+        if (TIMEOUT_MILLIS > 0) {
+            token.timeout = TIMER.schedule(() -> token.cancel("操作超时（" + TIMEOUT_MILLIS / 1000 + "秒）"),
+                TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return token;
+    }
+
+    /**
+     * 获取当前线程的取消令牌，不在工具调用中时返回永不取消的空令牌
+     */
+    public static CancellationToken current() {
+        CancellationToken token = CURRENT.get();
+        return token != null ? token : NONE;
+    }
+
+    /**
+     * 按操作ID取消操作
+     *
+     * @param operationId 操作ID
+     * @param reason 取消原因
+     * @return 操作是否存在
+     */
+    public static boolean cancel(String operationId, String reason) {
+        CancellationToken token = operationId != null ? ACTIVE.get(operationId) : null;
+        if (token == null) {
+            return false;
+        }
+        token.cancel(reason);
+        return true;
+    }
+
+    /**
+     * 获取所有进行中的操作
+     */
+    public static List<OperationInfo> getActiveOperations() {
+        List<OperationInfo> operations = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (CancellationToken token : ACTIVE.values()) {
+            operations.add(new OperationInfo(token.id, token.toolName, now - token.startTime,
+                token.progress, token.isCancelled()));
+        }
+        return operations;
+    }
+
+    /**
+     * 取消操作，并中断通过该令牌加载或保存的Aspose操作
+     *
+     * @param reason 取消原因
+     */
+    public void cancel(String reason) {
+        if (this == NONE || cancelReason != null) {
+            return;
+        }
+        cancelReason = reason;
+        interruptionSources.forEach(InterruptionTokenSource::interrupt);
+        LOGGER.info("操作" + id + "（" + toolName + "）已取消: " + reason);
+    }
+
+    /**
+     * 是否已被取消
+     */
+    public boolean isCancelled() {
+        return cancelReason != null;
+    }
+
+    /**
+     * 取消检查点，已取消时抛出{@link CancelledException}
+     */
+    public void checkpoint() {
+        if (cancelReason != null) {
+            throw new CancelledException(id, cancelReason);
+        }
+    }
+
+    /**
+     * 汇报进度，按最小间隔节流，完成时总会汇报
+     *
+     * @param done 已完成量
+     * @param total 总量
+     * @param message 当前步骤描述
+     */
+    public void reportProgress(double done, double total, String message) {
+        if (listener == null) {
+            return;
+        }
+        progress = total > 0 ? done / total : 0;
+        long now = System.nanoTime();
+        if (done < total && now - lastProgressNanos < PROGRESS_INTERVAL_NANOS) {
+            return;
+        }
+        lastProgressNanos = now;
+        listener.onProgress(this, done, total, message);
+    }
+
+    /**
+     * 创建Aspose保存进度回调：汇报百分比进度，取消后抛出异常中止保存
+     *
+     * @param message 步骤描述
+     * @return 进度回调
+     */
+    public IProgressCallback saveProgress(String message) {
+        return value -> {
+            reportProgress(value, 100, message);
+            checkpoint();
+        };
+    }
+
+    /**
+     * 创建Aspose中断令牌，用于加载选项，取消时中断使用该令牌的加载和保存
+     */
+    public IInterruptionToken interruptionToken() {
+        InterruptionTokenSource source = new InterruptionTokenSource();
+        if (this != NONE) {
+            interruptionSources.add(source);
+            if (cancelReason != null) {
+                source.interrupt();
+            }
+        }
+        return source.getToken();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getToolName() {
+        return toolName;
+    }
+
+    /**
+     * 结束操作并解除线程绑定
+     */
+    @Override
+    public void close() {
+        if (this == NONE) {
+            return;
+        }
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+        ACTIVE.remove(id);
+        CURRENT.remove();
+    }
+
+    private static long readTimeoutSeconds() {
+        String value = System.getenv("TOOL_TIMEOUT_SECONDS");
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("无效的TOOL_TIMEOUT_SECONDS: " + value + "，不限制操作时间");
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.pptagent.tools.changes;
+
+import io.pptagent.tools.PresentationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 修改记录 - 按版本递增记录演示文稿的每次修改
+ * 每条记录的版本等于修改完成后演示文稿的修改次数（{@link PresentationManager#getChangeCount()}），
+ * 客户端记住已同步的版本，之后只拉取更新的记录，无需重新读取整张幻灯片。
+ * 每个演示文稿最多保留{@value #MAX_ENTRIES}条，更早的记录被丢弃后需重新完整读取。
+ */
+public final class ChangeFeed {
+
+    private static final int MAX_ENTRIES = 1000;
+
+    private static final Map<PresentationManager, Feed> FEEDS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final List<ChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private ChangeFeed() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 单个演示文稿的修改记录
+     */
+    private static final class Feed {
+        final NavigableMap<Long, Change> entries = new ConcurrentSkipListMap<>();
+        // 已丢弃记录中的最大版本
+        volatile long droppedUpTo;
+    }
+
+    /**
+     * 一次修改
+     *
+     * @param version 修改完成后的演示文稿版本
+     * @param kind 修改类型，如slideAdded、shapeAdded、textSet、backgroundChanged
+     * @param tool 执行修改的工具
+     * @param slideIndex 所修改幻灯片的索引，修改整个演示文稿时为-1
+     * @param timestamp 修改时间
+     */
+    public record Change(long version, String kind, String tool, int slideIndex, long timestamp) {}
+
+    /**
+     * 拉取结果
+     *
+     * @param changes 版本大于请求版本的修改，按版本升序
+     * @param latestVersion 演示文稿当前版本
+     * @param truncated 请求版本之后的部分记录已被丢弃，客户端需重新完整读取
+     */
+    public record ChangesPage(List<Change> changes, long latestVersion, boolean truncated) {}
+
+    /**
+     * 修改监听器
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onChange(PresentationManager manager, Change change);
+    }
+
+    /**
+     * 记录一次修改并通知监听器
+     *
+     * @param manager 被修改的演示文稿
+     * @param change 修改
+     */
+    public static void record(PresentationManager manager, Change change) {
+        Feed feed = FEEDS.computeIfAbsent(manager, m -> new Feed());
+        synchronized (feed) {
+            feed.entries.put(change.version(), change);
+            while (feed.entries.size() > MAX_ENTRIES) {
+                feed.droppedUpTo = feed.entries.pollFirstEntry().getKey();
+            }
+        }
+        for (ChangeListener listener : LISTENERS) {
+            listener.onChange(manager, change);
+        }
+    }
+
+    /**
+     * 获取指定版本之后的修改
+     *
+     * @param manager 演示文稿
+     * @param sinceVersion 已同步的版本
+     * @param limit 最多返回的条数
+     * @return 拉取结果
+     */
+    public static ChangesPage since(PresentationManager manager, long sinceVersion, int limit) {
+        long latestVersion = manager.getChangeCount();
+        Feed feed = FEEDS.get(manager);
+        if (feed == null) {
+            return new ChangesPage(List.of(), latestVersion, false);
+        }
+        List<Change> changes = new ArrayList<>();
+        for (Change change : feed.entries.tailMap(sinceVersion, false).values()) {
+            if (changes.size() >= limit) {
+                break;
+            }
+            changes.add(change);
+        }
+        return new ChangesPage(changes, latestVersion, sinceVersion < feed.droppedUpTo);
+    }
+
+    /**
+     * 添加修改监听器
+     */
+    public static void addListener(ChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+}
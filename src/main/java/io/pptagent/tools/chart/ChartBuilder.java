@@ -0,0 +1,80 @@
+package io.pptagent.tools.chart;
+
+import java.util.List;
+
+import com.aspose.slides.IChart;
+import com.aspose.slides.IChartDataPoint;
+import com.aspose.slides.IChartDataWorkbook;
+import com.aspose.slides.IChartSeries;
+import io.pptagent.tools.chart.ChartTools.SeriesData;
+
+/**
+ * 图表构建器接口
+ * 每种图表类型对应一个无状态的构建器实例，由{@link ChartBuilderRegistry}缓存和查找
+ */
+public interface ChartBuilder {
+
+    /**
+     * 获取创建图表时使用的Aspose图表类型
+     */
+    int getAsposeChartType();
+
+    /**
+     * 获取图表类型的显示名称（用于结果消息）
+     */
+    String getDisplayName();
+
+    /**
+     * 获取指定系列使用的Aspose图表类型，组合图可以为不同系列返回不同类型
+     */
+    default int getSeriesChartType(int seriesIndex) {
+        return getAsposeChartType();
+    }
+
+    /**
+     * 是否使用类别轴，散点图的X值保存在各数据点中，没有类别
+     */
+    default boolean usesCategories() {
+        return true;
+    }
+
+    /**
+     * 是否支持对超长系列降采样
+     */
+    default boolean supportsDownsampling() {
+        return false;
+    }
+
+    /**
+     * 填充图表数据，默认使用共享的类别/系列填充逻辑
+     */
+    default void fillData(IChart chart, List<String> categories, List<SeriesData> seriesDataList) {
+        ChartTools.fillChartData(chart, categories, seriesDataList, this);
+    }
+
+    /**
+     * 将值写入工作簿并作为数据点追加到系列
+     *
+     * @param workbook 图表数据工作簿
+     * @param series 目标系列
+     * @param categories 类别标签（散点图中为X值）
+     * @param pointIndex 数据点索引
+     * @param seriesIndex 系列索引
+     * @param value 数据值
+     */
+    void addDataPoint(IChartDataWorkbook workbook, IChartSeries series, List<String> categories,
+                      int pointIndex, int seriesIndex, Object value);
+
+    /**
+     * 原地更新已有数据点，只写入发生变化的单元格
+     *
+     * @param point 数据点
+     * @param categories 类别标签（散点图中为X值）
+     * @param pointIndex 数据点索引
+     * @param value 新的数据值
+     * @return 写入的单元格数
+     */
+    default int updateDataPoint(IChartDataPoint point, List<String> categories, int pointIndex, Object value) {
+        return ChartTools.writeIfChanged(point.getValue().getAsCell(), value);
+    }
+}
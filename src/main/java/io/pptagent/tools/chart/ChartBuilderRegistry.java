@@ -0,0 +1,352 @@
+package io.pptagent.tools.chart;
+
+import java.awt.Color;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.aspose.slides.ChartType;
+import com.aspose.slides.FillType;
+import com.aspose.slides.IChart;
+import com.aspose.slides.IChartDataCell;
+import com.aspose.slides.IChartDataPoint;
+import com.aspose.slides.IChartDataWorkbook;
+import com.aspose.slides.IChartSeries;
+import com.aspose.slides.IDataLabel;
+import io.pptagent.tools.chart.ChartTools.ChartTypeEnum;
+import io.pptagent.tools.chart.ChartTools.SeriesData;
+
+/**
+ * 图表构建器注册表
+ * 构建器在类加载时创建一次，之后通过EnumMap或图表类型映射直接查找
+ */
+public final class ChartBuilderRegistry {
+    private static final Logger LOGGER = Logger.getLogger(ChartBuilderRegistry.class.getName());
+
+    private static final Map<ChartTypeEnum, ChartBuilder> BUILDERS = new EnumMap<>(ChartTypeEnum.class);
+    private static final Map<Integer, ChartBuilder> BUILDERS_BY_ASPOSE_TYPE = new HashMap<>();
+
+    static {
+        register(ChartTypeEnum.COLUMN, new CategoryChartBuilder(ChartType.ClusteredColumn, "柱状图"));
+        register(ChartTypeEnum.BAR, new CategoryChartBuilder(ChartType.ClusteredBar, "条形图"));
+        register(ChartTypeEnum.LINE, new CategoryChartBuilder(ChartType.Line, "折线图"));
+        register(ChartTypeEnum.AREA, new CategoryChartBuilder(ChartType.Area, "面积图"));
+        register(ChartTypeEnum.STACKED_COLUMN, new CategoryChartBuilder(ChartType.StackedColumn, "堆积柱状图"));
+        register(ChartTypeEnum.STACKED_BAR, new CategoryChartBuilder(ChartType.StackedBar, "堆积条形图"));
+        register(ChartTypeEnum.STACKED_AREA, new CategoryChartBuilder(ChartType.StackedArea, "堆积面积图"));
+        register(ChartTypeEnum.COMBO, new ComboChartBuilder());
+        register(ChartTypeEnum.SCATTER, new ScatterChartBuilder());
+        register(ChartTypeEnum.PIE, new PieChartBuilder(ChartType.Pie, "饼图"));
+        register(ChartTypeEnum.DOUGHNUT, new PieChartBuilder(ChartType.Doughnut, "圆环图"));
+    }
+
+    private ChartBuilderRegistry() {
+        // 私有构造函数防止实例化
+    }
+
+    private static void register(ChartTypeEnum type, ChartBuilder builder) {
+        BUILDERS.put(type, builder);
+        BUILDERS_BY_ASPOSE_TYPE.putIfAbsent(builder.getAsposeChartType(), builder);
+    }
+
+    /**
+     * 获取图表类型对应的构建器
+     *
+     * @param type 图表类型
+     * @return 构建器，不支持的类型返回null
+     */
+    public static ChartBuilder get(ChartTypeEnum type) {
+        return type == null ? null : BUILDERS.get(type);
+    }
+
+    /**
+     * 根据已有图表的Aspose类型查找构建器，找不到时按柱状图处理
+     * 组合图报告第一个系列的类型，类别型图表的数据点按各系列自身的类型添加，不依赖这里返回的构建器
+     */
+    public static ChartBuilder forAsposeType(int asposeChartType) {
+        return BUILDERS_BY_ASPOSE_TYPE.getOrDefault(asposeChartType, BUILDERS.get(ChartTypeEnum.COLUMN));
+    }
+
+    /**
+     * 获取所有已注册的图表类型
+     */
+    public static Map<ChartTypeEnum, ChartBuilder> getBuilders() {
+        return Collections.unmodifiableMap(BUILDERS);
+    }
+
+    /**
+     * 类别型图表的数据点种类
+     */
+    private enum PointKind {
+        BAR, LINE, AREA
+    }
+
+    /**
+     * 根据系列的Aspose图表类型确定数据点种类
+     */
+    private static PointKind pointKindOf(int seriesType) {
+        if (seriesType == ChartType.Line || seriesType == ChartType.StackedLine
+            || seriesType == ChartType.PercentsStackedLine || seriesType == ChartType.LineWithMarkers
+            || seriesType == ChartType.StackedLineWithMarkers || seriesType == ChartType.PercentsStackedLineWithMarkers) {
+            return PointKind.LINE;
+        }
+        if (seriesType == ChartType.Area || seriesType == ChartType.StackedArea
+            || seriesType == ChartType.PercentsStackedArea) {
+            return PointKind.AREA;
+        }
+        return PointKind.BAR;
+    }
+
+    /**
+     * 按系列自身的类型追加数据点，组合图中的折线系列使用折线数据点
+     */
+    private static void addCategoryPoint(IChartSeries series, IChartDataCell cell) {
+        PointKind kind = pointKindOf(series.getType());
+        switch (kind) {
+            case LINE -> series.getDataPoints().addDataPointForLineSeries(cell);
+            case AREA -> series.getDataPoints().addDataPointForAreaSeries(cell);
+            default -> series.getDataPoints().addDataPointForBarSeries(cell);
+        }
+    }
+
+    /**
+     * 类别型图表构建器（柱状图、条形图、折线图、面积图及其堆积形式）
+     */
+    private static final class CategoryChartBuilder implements ChartBuilder {
+        private final int asposeChartType;
+        private final String displayName;
+
+        CategoryChartBuilder(int asposeChartType, String displayName) {
+            this.asposeChartType = asposeChartType;
+            this.displayName = displayName;
+        }
+
+        @Override
+        public int getAsposeChartType() {
+            return asposeChartType;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public boolean supportsDownsampling() {
+            return true;
+        }
+
+        @Override
+        public void addDataPoint(IChartDataWorkbook workbook, IChartSeries series, List<String> categories,
+                                 int pointIndex, int seriesIndex, Object value) {
+            addCategoryPoint(series, workbook.getCell(0, pointIndex + 1, seriesIndex + 1, value));
+        }
+    }
+
+    /**
+     * 组合图构建器：第一个系列为柱状图，其余系列为折线图
+     */
+    private static final class ComboChartBuilder implements ChartBuilder {
+
+        @Override
+        public int getAsposeChartType() {
+            return ChartType.ClusteredColumn;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "组合图";
+        }
+
+        @Override
+        public int getSeriesChartType(int seriesIndex) {
+            return seriesIndex == 0 ? ChartType.ClusteredColumn : ChartType.Line;
+        }
+
+        @Override
+        public boolean supportsDownsampling() {
+            return true;
+        }
+
+        @Override
+        public void addDataPoint(IChartDataWorkbook workbook, IChartSeries series, List<String> categories,
+                                 int pointIndex, int seriesIndex, Object value) {
+            addCategoryPoint(series, workbook.getCell(0, pointIndex + 1, seriesIndex + 1, value));
+        }
+    }
+
+    /**
+     * 散点图构建器：类别列作为X值（无法解析为数字时使用序号），系列值作为Y值
+     */
+    private static final class ScatterChartBuilder implements ChartBuilder {
+
+        @Override
+        public int getAsposeChartType() {
+            return ChartType.ScatterWithMarkers;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "散点图";
+        }
+
+        @Override
+        public void fillData(IChart chart, List<String> categories, List<SeriesData> seriesDataList) {
+            // 散点图不使用类别轴，直接清空默认数据后逐点写入X/Y值
+            IChartDataWorkbook workbook = chart.getChartData().getChartDataWorkbook();
+            chart.getChartData().getSeries().clear();
+            chart.getChartData().getCategories().clear();
+
+            for (int seriesIdx = 0; seriesIdx < seriesDataList.size(); seriesIdx++) {
+                SeriesData seriesData = seriesDataList.get(seriesIdx);
+                IChartSeries series = chart.getChartData().getSeries().add(
+                    workbook.getCell(0, 0, seriesIdx + 1, seriesData.getName()), getAsposeChartType());
+
+                List<Double> values = seriesData.getValues();
+                for (int pointIdx = 0; pointIdx < values.size() && pointIdx < categories.size(); pointIdx++) {
+                    addScatterPoint(workbook, series, categories, pointIdx, seriesIdx, values.get(pointIdx));
+                }
+                ChartTools.applySeriesStyle(series, seriesData);
+            }
+        }
+
+        @Override
+        public boolean usesCategories() {
+            return false;
+        }
+
+        @Override
+        public void addDataPoint(IChartDataWorkbook workbook, IChartSeries series, List<String> categories,
+                                 int pointIndex, int seriesIndex, Object value) {
+            addScatterPoint(workbook, series, categories, pointIndex, seriesIndex, value);
+        }
+
+        @Override
+        public int updateDataPoint(IChartDataPoint point, List<String> categories, int pointIndex, Object value) {
+            return ChartTools.writeIfChanged(point.getXValue().getAsCell(), xValueOf(categories, pointIndex))
+                + ChartTools.writeIfChanged(point.getYValue().getAsCell(), value);
+        }
+
+        private static void addScatterPoint(IChartDataWorkbook workbook, IChartSeries series, List<String> categories,
+                                            int pointIdx, int seriesIdx, Object value) {
+            series.getDataPoints().addDataPointForScatterSeries(
+                workbook.getCell(0, pointIdx + 1, 0, xValueOf(categories, pointIdx)),
+                workbook.getCell(0, pointIdx + 1, seriesIdx + 1, value)
+            );
+        }
+
+        /**
+         * 类别解析为数字作为X值，非数字类别按序号
+         */
+        private static double xValueOf(List<String> categories, int pointIdx) {
+            try {
+                return Double.parseDouble(categories.get(pointIdx));
+            } catch (NumberFormatException | NullPointerException | IndexOutOfBoundsException e) {
+                return pointIdx + 1;
+            }
+        }
+    }
+
+    /**
+     * 饼图/圆环图构建器：只使用第一个系列，系列颜色作为第一个切片的颜色
+     */
+    private static final class PieChartBuilder implements ChartBuilder {
+        private final int asposeChartType;
+        private final String displayName;
+
+        PieChartBuilder(int asposeChartType, String displayName) {
+            this.asposeChartType = asposeChartType;
+            this.displayName = displayName;
+        }
+
+        @Override
+        public int getAsposeChartType() {
+            return asposeChartType;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public void fillData(IChart chart, List<String> sliceLabels, List<SeriesData> seriesDataList) {
+            SeriesData pieData = seriesDataList.get(0);
+            List<Double> values = pieData.getValues();
+            List<String> sliceColors = pieData.getColor() != null ? List.of(pieData.getColor()) : null;
+
+            // 获取图表数据工作簿
+            IChartDataWorkbook workbook = chart.getChartData().getChartDataWorkbook();
+
+            // 清除默认系列和类别
+            chart.getChartData().getSeries().clear();
+            chart.getChartData().getCategories().clear();
+
+            // 添加类别（饼图的切片）
+            for (int i = 0; i < sliceLabels.size(); i++) {
+                chart.getChartData().getCategories().add(
+                    workbook.getCell(0, i + 1, 0, sliceLabels.get(i))
+                );
+            }
+
+            // 添加系列（饼图只有一个系列）
+            IChartSeries series = chart.getChartData().getSeries().add(
+                workbook.getCell(0, 0, 1, pieData.getName() != null ? pieData.getName() : "数据"),
+                chart.getType()
+            );
+
+            // 填充数据点
+            for (int i = 0; i < values.size() && i < sliceLabels.size(); i++) {
+                addDataPoint(workbook, series, sliceLabels, i, 0, values.get(i));
+            }
+
+            // 设置饼图颜色
+            if (sliceColors == null || sliceColors.isEmpty()) {
+                // 没有提供颜色，使用自动变色
+                chart.getChartData().getSeriesGroups().get_Item(0).setColorVaried(true);
+            } else {
+                // 用户提供了颜色，使用指定颜色
+                chart.getChartData().getSeriesGroups().get_Item(0).setColorVaried(false);
+
+                // 设置数据点样式和标签
+                for (int i = 0; i < Math.min(values.size(), sliceLabels.size()); i++) {
+                    if (i < sliceColors.size() && sliceColors.get(i) != null) {
+                        try {
+                            IChartDataPoint point = series.getDataPoints().get_Item(i);
+
+                            // 设置标签显示百分比
+                            IDataLabel label = point.getLabel();
+                            label.getDataLabelFormat().setShowValue(true);
+                            label.getDataLabelFormat().setShowPercentage(true);
+
+                            // 设置自定义颜色
+                            Color sliceColor = Color.decode(sliceColors.get(i));
+                            point.getFormat().getFill().setFillType(FillType.Solid);
+                            point.getFormat().getFill().getSolidFillColor().setColor(sliceColor);
+                        } catch (NumberFormatException e) {
+                            LOGGER.log(Level.WARNING, "无效的颜色格式: " + sliceColors.get(i), e);
+                        }
+                    }
+                }
+            }
+
+            // 显示引导线
+            series.getLabels().getDefaultDataLabelFormat().setShowLeaderLines(true);
+        }
+
+        @Override
+        public void addDataPoint(IChartDataWorkbook workbook, IChartSeries series, List<String> categories,
+                                 int pointIndex, int seriesIndex, Object value) {
+            IChartDataCell cell = workbook.getCell(0, pointIndex + 1, seriesIndex + 1, value);
+            if (asposeChartType == ChartType.Doughnut) {
+                series.getDataPoints().addDataPointForDoughnutSeries(cell);
+            } else {
+                series.getDataPoints().addDataPointForPieSeries(cell);
+            }
+        }
+    }
+}
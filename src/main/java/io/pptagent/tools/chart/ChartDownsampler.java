@@ -0,0 +1,209 @@
+package io.pptagent.tools.chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.pptagent.tools.chart.ChartTools.SeriesData;
+
+/**
+ * 图表数据降采样工具
+ * 幻灯片上一个图表大约只能显示1000个可区分的数据点，超出的数据点只会让文件变大、渲染变慢。
+ * 所有系列共享同一组类别，因此这里只选出一组保留的类别下标，再按下标裁剪每个系列。
+ */
+public final class ChartDownsampler {
+
+    /**
+     * 降采样算法
+     */
+    public enum Method {
+        LTTB,       // Largest-Triangle-Three-Buckets，保留视觉形状
+        MINMAX      // 每个桶保留最小值和最大值，保留峰谷
+    }
+
+    /**
+     * 降采样结果
+     */
+    public record Result(List<String> categories, List<SeriesData> seriesDataList,
+                         int originalPointCount, int retainedPointCount) {}
+
+    private ChartDownsampler() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 从字符串转换为降采样算法，无法识别时使用LTTB
+     */
+    public static Method methodFromString(String method) {
+        if (method != null && "MINMAX".equalsIgnoreCase(method)) {
+            return Method.MINMAX;
+        }
+        return Method.LTTB;
+    }
+
+    /**
+     * 对类别和系列数据降采样
+     *
+     * @param categories 类别标签
+     * @param seriesDataList 系列数据列表
+     * @param maxPoints 目标点数，为null或不小于原始点数时不做处理
+     * @param method 降采样算法
+     * @return 降采样结果
+     */
+    public static Result downsample(List<String> categories, List<SeriesData> seriesDataList,
+                                    Integer maxPoints, Method method) {
+        int pointCount = categories == null ? 0 : categories.size();
+        if (maxPoints == null || maxPoints < 3 || pointCount <= maxPoints
+                || seriesDataList == null || seriesDataList.isEmpty()) {
+            return new Result(categories, seriesDataList, pointCount, pointCount);
+        }
+
+        double[][] values = toMatrix(seriesDataList, pointCount);
+        // MINMAX每个桶每个系列要保留两个点，目标点数容不下一个完整的桶时改用LTTB，保证不超过maxPoints
+        boolean minMax = method == Method.MINMAX && maxPoints >= 2 * values.length + 2;
+        int[] keep = minMax
+            ? selectMinMax(values, pointCount, maxPoints)
+            : selectLttb(values, pointCount, maxPoints);
+
+        List<String> sampledCategories = new ArrayList<>(keep.length);
+        for (int index : keep) {
+            sampledCategories.add(categories.get(index));
+        }
+
+        List<SeriesData> sampledSeries = new ArrayList<>(seriesDataList.size());
+        for (SeriesData seriesData : seriesDataList) {
+            List<Double> source = seriesData.getValues();
+            List<Double> sampledValues = new ArrayList<>(keep.length);
+            for (int index : keep) {
+                if (source == null || index >= source.size()) {
+                    break;
+                }
+                sampledValues.add(source.get(index));
+            }
+            sampledSeries.add(SeriesData.builder()
+                .name(seriesData.getName())
+                .values(sampledValues)
+                .color(seriesData.getColor())
+                .build());
+        }
+
+        return new Result(sampledCategories, sampledSeries, pointCount, keep.length);
+    }
+
+    /**
+     * 将系列数据转换为二维数组，缺失值和null按0处理
+     */
+    private static double[][] toMatrix(List<SeriesData> seriesDataList, int pointCount) {
+        double[][] values = new double[seriesDataList.size()][pointCount];
+        for (int s = 0; s < seriesDataList.size(); s++) {
+            List<Double> source = seriesDataList.get(s).getValues();
+            if (source == null) {
+                continue;
+            }
+            for (int i = 0; i < pointCount && i < source.size(); i++) {
+                Double value = source.get(i);
+                values[s][i] = value == null ? 0 : value;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * LTTB选点：首尾必选，中间按桶选取与前一个选中点、下一个桶均值构成三角形面积最大的点。
+     * 多系列时面积按系列求和，保证所有系列共用同一组类别。
+     */
+    private static int[] selectLttb(double[][] values, int pointCount, int maxPoints) {
+        int[] keep = new int[maxPoints];
+        int keepCount = 0;
+        keep[keepCount++] = 0;
+
+        double bucketSize = (double) (pointCount - 2) / (maxPoints - 2);
+        int previous = 0;
+
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = Math.min((int) Math.floor((bucket + 1) * bucketSize) + 1, pointCount - 1);
+
+            // 下一个桶的平均点（最后一个桶以末点为准）
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, pointCount);
+            if (nextEnd <= nextStart) {
+                nextEnd = nextStart + 1;
+            }
+            double avgX = (nextStart + nextEnd - 1) / 2.0;
+            double[] avgY = new double[values.length];
+            for (int s = 0; s < values.length; s++) {
+                for (int j = nextStart; j < nextEnd; j++) {
+                    avgY[s] += values[s][j];
+                }
+                avgY[s] /= (nextEnd - nextStart);
+            }
+
+            double maxArea = -1;
+            int selected = start;
+            for (int i = start; i < end; i++) {
+                double area = 0;
+                for (int s = 0; s < values.length; s++) {
+                    double[] series = values[s];
+                    area += Math.abs((previous - avgX) * (series[i] - series[previous])
+                        - (previous - i) * (avgY[s] - series[previous]));
+                }
+                if (area > maxArea) {
+                    maxArea = area;
+                    selected = i;
+                }
+            }
+
+            keep[keepCount++] = selected;
+            previous = selected;
+        }
+
+        keep[keepCount++] = pointCount - 1;
+        return Arrays.copyOf(keep, keepCount);
+    }
+
+    /**
+     * 最小/最大值分桶选点：首尾必选，中间每个桶保留各系列的最小值和最大值下标，
+     * 总点数不超过 2 + 桶数 * 2 * 系列数 <= maxPoints
+     */
+    private static int[] selectMinMax(double[][] values, int pointCount, int maxPoints) {
+        // 每个桶每个系列最多贡献两个点，调用方保证maxPoints >= 2 * 系列数 + 2，桶数至少为1
+        int bucketCount = (maxPoints - 2) / (2 * values.length);
+        double bucketSize = (double) (pointCount - 2) / bucketCount;
+
+        boolean[] selected = new boolean[pointCount];
+        selected[0] = true;
+        selected[pointCount - 1] = true;
+
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = Math.min((int) Math.floor((bucket + 1) * bucketSize) + 1, pointCount - 1);
+            if (start >= end) {
+                continue;
+            }
+            for (double[] series : values) {
+                int minIndex = start;
+                int maxIndex = start;
+                for (int i = start + 1; i < end; i++) {
+                    if (series[i] < series[minIndex]) {
+                        minIndex = i;
+                    }
+                    if (series[i] > series[maxIndex]) {
+                        maxIndex = i;
+                    }
+                }
+                selected[minIndex] = true;
+                selected[maxIndex] = true;
+            }
+        }
+
+        int[] keep = new int[pointCount];
+        int keepCount = 0;
+        for (int i = 0; i < pointCount; i++) {
+            if (selected[i]) {
+                keep[keepCount++] = i;
+            }
+        }
+        return Arrays.copyOf(keep, keepCount);
+    }
+}
@@ -5,17 +5,21 @@ import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import com.aspose.slides.ChartType;
 import com.aspose.slides.FillType;
 import com.aspose.slides.IChart;
-import com.aspose.slides.IChartDataPoint;
+import com.aspose.slides.IChartCategoryCollection;
+import com.aspose.slides.IChartDataCell;
+import com.aspose.slides.IChartDataPointCollection;
 import com.aspose.slides.IChartDataWorkbook;
 import com.aspose.slides.IChartSeries;
-import com.aspose.slides.IDataLabel;
+import com.aspose.slides.IChartSeriesCollection;
+import com.aspose.slides.IShape;
 import com.aspose.slides.ISlide;
 import com.aspose.slides.NullableBool;
 import com.aspose.slides.Presentation;
 import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.cancel.CancellationToken;
+import io.pptagent.tools.cancel.CancellationToken.CancelledException;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,9 +35,17 @@ public final class ChartTools {
      * 图表类型枚举
      */
     public enum ChartTypeEnum {
-        COLUMN,     // 柱状图
-        PIE,        // 饼图
-        LINE        // 折线图
+        COLUMN,         // 柱状图
+        BAR,            // 条形图
+        LINE,           // 折线图
+        AREA,           // 面积图
+        SCATTER,        // 散点图
+        PIE,            // 饼图
+        DOUGHNUT,       // 圆环图
+        STACKED_COLUMN, // 堆积柱状图
+        STACKED_BAR,    // 堆积条形图
+        STACKED_AREA,   // 堆积面积图
+        COMBO           // 组合图（柱状图+折线图）
     }
     
     /**
@@ -50,6 +62,8 @@ public final class ChartTools {
         private final String backgroundColor;  // 背景颜色（十六进制颜色代码，如"#FFFFFF"）
         private final String borderColor;      // 边框颜色（十六进制颜色代码，如"#000000"）
         private final float borderWidth;       // 边框宽度
+        private final Integer maxPoints;       // 折线图/柱状图最多保留的数据点数，为null时不降采样
+        private final String downsampleMethod; // 降采样算法（LTTB或MINMAX）
     }
     
     /**
@@ -72,6 +86,23 @@ public final class ChartTools {
         private final boolean success;      // 是否成功
         private final int chartIndex;       // 图表索引
         private final String message;       // 结果消息
+        private final int originalPointCount;   // 原始数据点数
+        private final int retainedPointCount;   // 降采样后保留的数据点数
+        
+        public ChartResult(boolean success, int chartIndex, String message) {
+            this(success, chartIndex, message, 0, 0);
+        }
+    }
+    
+    /**
+     * 图表数据更新结果类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class UpdateChartResult {
+        private final boolean success;      // 是否成功
+        private final int changedCells;     // 实际写入的单元格数
+        private final String message;       // 结果消息
     }
     
     private ChartTools() {
@@ -80,8 +111,9 @@ public final class ChartTools {
     
     /**
      * 统一的图表创建入口
+     * 通过图表构建器注册表查找对应类型的构建器，共用外观设置和降采样逻辑
      * 
-     * @param chartType 图表类型（COLUMN, PIE, LINE）
+     * @param chartType 图表类型
      * @param params 图表参数
      * @param categories 类别标签
      * @param seriesDataList 系列数据列表
@@ -97,170 +129,48 @@ public final class ChartTools {
                 return new ChartResult(false, -1, "没有活动的演示文稿");
             }
             
-            switch (chartType) {
-                case COLUMN:
-                    return createColumnChart(params, categories, seriesDataList, slideIndex);
-                case PIE:
-                    // 饼图只使用第一个系列的数据
-                    if (seriesDataList == null || seriesDataList.isEmpty()) {
-                        return new ChartResult(false, -1, "饼图需要至少一个数据系列");
-                    }
-                    SeriesData pieData = seriesDataList.get(0);
-                    List<String> sliceColors = null;
-                    if (pieData.getColor() != null) {
-                        // 对于饼图，如果提供了系列颜色，将其作为第一个切片的颜色
-                        sliceColors = List.of(pieData.getColor());
-                    }
-                    return createPieChart(params, categories, pieData.getValues(), sliceColors, slideIndex);
-                case LINE:
-                    return createLineChart(params, categories, seriesDataList, slideIndex);
-                default:
-                    return new ChartResult(false, -1, "不支持的图表类型: " + chartType);
+            ChartBuilder builder = ChartBuilderRegistry.get(chartType);
+            if (builder == null) {
+                return new ChartResult(false, -1, "不支持的图表类型: " + chartType);
             }
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "创建图表失败", e);
-            return new ChartResult(false, -1, "创建图表失败: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * 创建柱状图
-     */
-    private static ChartResult createColumnChart(ChartParams params, List<String> categories, 
-                                              List<SeriesData> seriesDataList, int slideIndex) {
-        try {
-            Presentation pres = PresentationManager.getInstance().getPresentation();
-            ISlide slide = pres.getSlides().get_Item(slideIndex);
             
-            // 添加带有默认数据的柱状图
-            IChart chart = slide.getShapes().addChart(ChartType.ClusteredColumn, 
-                params.getX(), params.getY(), params.getWidth(), params.getHeight());
-            
-            // 设置图表标题和样式
-            setupChartAppearance(chart, params);
-            
-            // 填充图表数据
-            fillChartData(chart, categories, seriesDataList, ChartType.ClusteredColumn);
+            if (seriesDataList == null || seriesDataList.isEmpty()) {
+                return new ChartResult(false, -1, builder.getDisplayName() + "需要至少一个数据系列");
+            }
             
-            // 返回图表索引
-            int chartIndex = slide.getShapes().indexOf(chart);
-            return new ChartResult(true, chartIndex, "柱状图创建成功");
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "创建柱状图失败", e);
-            return new ChartResult(false, -1, "创建柱状图失败: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * 创建饼图
-     */
-    private static ChartResult createPieChart(ChartParams params, List<String> sliceLabels, 
-                                           List<Double> values, List<String> sliceColors, int slideIndex) {
-        try {
-            Presentation pres = PresentationManager.getInstance().getPresentation();
             ISlide slide = pres.getSlides().get_Item(slideIndex);
             
-            // 添加带有默认数据的饼图
-            IChart chart = slide.getShapes().addChart(ChartType.Pie, 
-                params.getX(), params.getY(), params.getWidth(), params.getHeight());
+            // 数据点过多时先降采样
+            ChartDownsampler.Result sampled = builder.supportsDownsampling()
+                ? ChartDownsampler.downsample(categories, seriesDataList,
+                    params.getMaxPoints(), ChartDownsampler.methodFromString(params.getDownsampleMethod()))
+                : ChartDownsampler.downsample(categories, seriesDataList, null, null);
             
-            // 设置图表标题和样式
-            setupChartAppearance(chart, params);
-            
-            // 获取图表数据工作簿
-            IChartDataWorkbook workbook = chart.getChartData().getChartDataWorkbook();
-            
-            // 清除默认系列和类别
-            chart.getChartData().getSeries().clear();
-            chart.getChartData().getCategories().clear();
-            
-            // 添加类别（饼图的切片）
-            for (int i = 0; i < sliceLabels.size(); i++) {
-                chart.getChartData().getCategories().add(
-                    workbook.getCell(0, i + 1, 0, sliceLabels.get(i))
-                );
-            }
-            
-            // 添加系列（饼图只有一个系列）
-            IChartSeries series = chart.getChartData().getSeries().add(
-                workbook.getCell(0, 0, 1, "数据"), 
-                chart.getType()
-            );
-            
-            // 填充数据点
-            for (int i = 0; i < values.size() && i < sliceLabels.size(); i++) {
-                series.getDataPoints().addDataPointForPieSeries(
-                    workbook.getCell(0, i + 1, 1, values.get(i))
-                );
-            }
+            // 添加带有默认数据的图表
+            IChart chart = slide.getShapes().addChart(builder.getAsposeChartType(), 
+                params.getX(), params.getY(), params.getWidth(), params.getHeight());
             
-            // 设置饼图颜色
-            if (sliceColors == null || sliceColors.isEmpty()) {
-                // 没有提供颜色，使用自动变色
-                chart.getChartData().getSeriesGroups().get_Item(0).setColorVaried(true);
-            } else {
-                // 用户提供了颜色，使用指定颜色
-                chart.getChartData().getSeriesGroups().get_Item(0).setColorVaried(false);
+            try {
+                // 设置图表标题和样式
+                setupChartAppearance(chart, params);
                 
-                // 设置数据点样式和标签
-                for (int i = 0; i < Math.min(values.size(), sliceLabels.size()); i++) {
-                    if (i < sliceColors.size() && sliceColors.get(i) != null) {
-                        try {
-                            IChartDataPoint point = series.getDataPoints().get_Item(i);
-                            
-                            // 设置标签显示百分比
-                            IDataLabel label = point.getLabel();
-                            label.getDataLabelFormat().setShowValue(true);
-                            label.getDataLabelFormat().setShowPercentage(true);
-                            
-                            // 设置自定义颜色
-                            Color sliceColor = Color.decode(sliceColors.get(i));
-                            point.getFormat().getFill().setFillType(FillType.Solid);
-                            point.getFormat().getFill().getSolidFillColor().setColor(sliceColor);
-                        } catch (NumberFormatException e) {
-                            LOGGER.log(Level.WARNING, "无效的颜色格式: " + sliceColors.get(i), e);
-                        }
-                    }
-                }
+                // 填充图表数据
+                builder.fillData(chart, sampled.categories(), sampled.seriesDataList());
+            } catch (CancelledException e) {
+                // 取消时移除填充了一半的图表
+                slide.getShapes().remove(chart);
+                throw e;
             }
             
-            // 显示引导线
-            series.getLabels().getDefaultDataLabelFormat().setShowLeaderLines(true);
-            
             // 返回图表索引
             int chartIndex = slide.getShapes().indexOf(chart);
-            return new ChartResult(true, chartIndex, "饼图创建成功");
+            return new ChartResult(true, chartIndex, builder.getDisplayName() + "创建成功",
+                sampled.originalPointCount(), sampled.retainedPointCount());
+        } catch (CancelledException e) {
+            throw e;
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "创建饼图失败", e);
-            return new ChartResult(false, -1, "创建饼图失败: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * 创建折线图
-     */
-    private static ChartResult createLineChart(ChartParams params, List<String> categories, 
-                                            List<SeriesData> seriesDataList, int slideIndex) {
-        try {
-            Presentation pres = PresentationManager.getInstance().getPresentation();
-            ISlide slide = pres.getSlides().get_Item(slideIndex);
-            
-            // 添加带有默认数据的折线图
-            IChart chart = slide.getShapes().addChart(ChartType.Line, 
-                params.getX(), params.getY(), params.getWidth(), params.getHeight());
-            
-            // 设置图表标题和样式
-            setupChartAppearance(chart, params);
-            
-            // 填充图表数据
-            fillChartData(chart, categories, seriesDataList, ChartType.Line);
-            
-            // 返回图表索引
-            int chartIndex = slide.getShapes().indexOf(chart);
-            return new ChartResult(true, chartIndex, "折线图创建成功");
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "创建折线图失败", e);
-            return new ChartResult(false, -1, "创建折线图失败: " + e.getMessage());
+            LOGGER.log(Level.SEVERE, "创建图表失败", e);
+            return new ChartResult(false, -1, "创建图表失败: " + e.getMessage());
         }
     }
     
@@ -301,10 +211,10 @@ public final class ChartTools {
     }
     
     /**
-     * 填充图表数据（柱状图和折线图共用）
+     * 填充图表数据（类别型图表共用）
      */
-    private static void fillChartData(IChart chart, List<String> categories, 
-                                    List<SeriesData> seriesDataList, int chartType) {
+    static void fillChartData(IChart chart, List<String> categories, 
+                              List<SeriesData> seriesDataList, ChartBuilder builder) {
         // 获取图表数据工作簿
         IChartDataWorkbook workbook = chart.getChartData().getChartDataWorkbook();
         
@@ -317,7 +227,7 @@ public final class ChartTools {
             SeriesData seriesData = seriesDataList.get(i);
             chart.getChartData().getSeries().add(
                 workbook.getCell(0, 0, i + 1, seriesData.getName()), 
-                chartType
+                builder.getSeriesChartType(i)
             );
         }
         
@@ -328,39 +238,158 @@ public final class ChartTools {
             );
         }
         
-        // 填充数据
+        // 填充数据，每个系列之间检查取消
+        CancellationToken token = CancellationToken.current();
         for (int seriesIdx = 0; seriesIdx < seriesDataList.size(); seriesIdx++) {
+            token.checkpoint();
+            token.reportProgress(seriesIdx, seriesDataList.size(), "填充图表数据");
             IChartSeries series = chart.getChartData().getSeries().get_Item(seriesIdx);
             SeriesData seriesData = seriesDataList.get(seriesIdx);
             List<Double> values = seriesData.getValues();
             
             for (int pointIdx = 0; pointIdx < values.size() && pointIdx < categories.size(); pointIdx++) {
-                // 根据图表类型添加不同的数据点
-                if (chartType == ChartType.ClusteredColumn) {
-                    series.getDataPoints().addDataPointForBarSeries(
-                        workbook.getCell(0, pointIdx + 1, seriesIdx + 1, values.get(pointIdx))
-                    );
-                } else if (chartType == ChartType.Line) {
-                    series.getDataPoints().addDataPointForLineSeries(
-                        workbook.getCell(0, pointIdx + 1, seriesIdx + 1, values.get(pointIdx))
-                    );
+                // 由构建器决定数据点的添加方式
+                builder.addDataPoint(workbook, series, categories, pointIdx, seriesIdx, values.get(pointIdx));
+            }
+            
+            applySeriesStyle(series, seriesData);
+        }
+    }
+    
+    /**
+     * 设置系列颜色并显示数据点值
+     */
+    static void applySeriesStyle(IChartSeries series, SeriesData seriesData) {
+        // 设置系列颜色
+        if (seriesData.getColor() != null && !seriesData.getColor().isEmpty()) {
+            try {
+                Color seriesColor = Color.decode(seriesData.getColor());
+                series.getFormat().getFill().setFillType(FillType.Solid);
+                series.getFormat().getFill().getSolidFillColor().setColor(seriesColor);
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.WARNING, "无效的颜色格式: " + seriesData.getColor(), e);
+            }
+        }
+        
+        // 显示数据点值
+        series.getLabels().getDefaultDataLabelFormat().setShowValue(true);
+    }
+    
+    /**
+     * 原地更新已有图表的数据
+     * 与工作簿中的现有内容逐个比较，只写入发生变化的单元格；
+     * 类别或系列数量变化时在末尾追加或删除，不会重建整个图表
+     * 
+     * @param slideIndex 幻灯片索引
+     * @param chartIndex 图表在幻灯片中的形状索引
+     * @param categories 新的类别标签
+     * @param seriesDataList 新的系列数据列表
+     * @return 图表数据更新结果
+     */
+    public static UpdateChartResult updateChartData(int slideIndex, int chartIndex, List<String> categories,
+                                                    List<SeriesData> seriesDataList) {
+        try {
+            Presentation pres = PresentationManager.getInstance().getPresentation();
+            if (pres == null) {
+                return new UpdateChartResult(false, 0, "没有活动的演示文稿");
+            }
+            
+            if (categories == null || seriesDataList == null) {
+                return new UpdateChartResult(false, 0, "类别和系列数据不能为空");
+            }
+            
+            ISlide slide = pres.getSlides().get_Item(slideIndex);
+            if (chartIndex < 0 || chartIndex >= slide.getShapes().size()) {
+                return new UpdateChartResult(false, 0, "无效的图表索引");
+            }
+            
+            IShape shape = slide.getShapes().get_Item(chartIndex);
+            if (!(shape instanceof IChart chart)) {
+                return new UpdateChartResult(false, 0, "指定的形状不是图表");
+            }
+            
+            IChartDataWorkbook workbook = chart.getChartData().getChartDataWorkbook();
+            ChartBuilder builder = ChartBuilderRegistry.forAsposeType(chart.getType());
+            int changed = 0;
+            
+            // 更新类别；散点图没有类别，第0列是X值，随数据点一起更新
+            if (builder.usesCategories()) {
+                IChartCategoryCollection existingCategories = chart.getChartData().getCategories();
+                for (int i = 0; i < categories.size(); i++) {
+                    if (i < existingCategories.size()) {
+                        changed += writeIfChanged(existingCategories.get_Item(i).getAsCell(), categories.get(i));
+                    } else {
+                        existingCategories.add(workbook.getCell(0, i + 1, 0, categories.get(i)));
+                        changed++;
+                    }
+                }
+                while (existingCategories.size() > categories.size()) {
+                    existingCategories.removeAt(existingCategories.size() - 1);
                 }
             }
             
-            // 设置系列颜色
-            if (seriesData.getColor() != null && !seriesData.getColor().isEmpty()) {
-                try {
-                    Color seriesColor = Color.decode(seriesData.getColor());
-                    series.getFormat().getFill().setFillType(FillType.Solid);
-                    series.getFormat().getFill().getSolidFillColor().setColor(seriesColor);
-                } catch (NumberFormatException e) {
-                    LOGGER.log(Level.WARNING, "无效的颜色格式: " + seriesData.getColor(), e);
+            // 更新系列
+            IChartSeriesCollection existingSeries = chart.getChartData().getSeries();
+            for (int seriesIdx = 0; seriesIdx < seriesDataList.size(); seriesIdx++) {
+                SeriesData seriesData = seriesDataList.get(seriesIdx);
+                IChartSeries series;
+                if (seriesIdx < existingSeries.size()) {
+                    series = existingSeries.get_Item(seriesIdx);
+                    changed += writeIfChanged(workbook.getCell(0, 0, seriesIdx + 1), seriesData.getName());
+                } else {
+                    // 追加的系列沿用最后一个已有系列的类型，组合图追加后仍是组合图
+                    int seriesType = existingSeries.size() > 0
+                        ? existingSeries.get_Item(existingSeries.size() - 1).getType()
+                        : builder.getSeriesChartType(seriesIdx);
+                    series = existingSeries.add(workbook.getCell(0, 0, seriesIdx + 1, seriesData.getName()),
+                        seriesType);
+                    changed++;
+                }
+                
+                // 更新数据点
+                IChartDataPointCollection points = series.getDataPoints();
+                List<Double> values = seriesData.getValues();
+                int pointCount = values == null ? 0 : Math.min(values.size(), categories.size());
+                for (int pointIdx = 0; pointIdx < pointCount; pointIdx++) {
+                    Double value = values.get(pointIdx);
+                    if (pointIdx < points.size()) {
+                        changed += builder.updateDataPoint(points.get_Item(pointIdx), categories, pointIdx, value);
+                    } else {
+                        builder.addDataPoint(workbook, series, categories, pointIdx, seriesIdx, value);
+                        changed++;
+                    }
                 }
+                while (points.size() > pointCount) {
+                    points.removeAt(points.size() - 1);
+                }
+            }
+            while (existingSeries.size() > seriesDataList.size()) {
+                existingSeries.removeAt(existingSeries.size() - 1);
             }
             
-            // 显示数据点值
-            series.getLabels().getDefaultDataLabelFormat().setShowValue(true);
+            return new UpdateChartResult(true, changed, "图表数据更新成功");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "更新图表数据失败", e);
+            return new UpdateChartResult(false, 0, "更新图表数据失败: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 值不同时才写入单元格
+     * 
+     * @return 写入的单元格数（0或1）
+     */
+    static int writeIfChanged(IChartDataCell cell, Object newValue) {
+        Object oldValue = cell.getValue();
+        if (oldValue instanceof Number oldNumber && newValue instanceof Number newNumber) {
+            if (Double.compare(oldNumber.doubleValue(), newNumber.doubleValue()) == 0) {
+                return 0;
+            }
+        } else if (oldValue == null ? newValue == null : oldValue.toString().equals(String.valueOf(newValue))) {
+            return 0;
         }
+        cell.setValue(newValue);
+        return 1;
     }
     
     /**
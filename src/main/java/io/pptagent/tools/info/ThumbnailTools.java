@@ -0,0 +1,48 @@
+package io.pptagent.tools.info;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+import com.aspose.slides.Presentation;
+
+/**
+ * 缩略图工具类 - 将幻灯片渲染为PNG缩略图
+ */
+public class ThumbnailTools {
+
+    private static final Logger LOGGER = Logger.getLogger(ThumbnailTools.class.getName());
+
+    /**
+     * 将幻灯片渲染为PNG缩略图
+     *
+     * @param pres Presentation对象
+     * @param slideIndex 幻灯片索引
+     * @param scale 相对幻灯片尺寸的缩放比例
+     * @return PNG数据，失败时返回null
+     */
+    public static byte[] renderThumbnail(Presentation pres, int slideIndex, float scale) {
+        try {
+            if (pres == null) {
+                LOGGER.severe("没有活动的演示文稿");
+                return null;
+            }
+
+            if (slideIndex < 0 || slideIndex >= pres.getSlides().size()) {
+                LOGGER.severe("无效的幻灯片索引: " + slideIndex);
+                return null;
+            }
+
+            BufferedImage image = pres.getSlides().get_Item(slideIndex).getThumbnail(scale, scale);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "渲染缩略图失败: " + slideIndex, e);
+            return null;
+        }
+    }
+}
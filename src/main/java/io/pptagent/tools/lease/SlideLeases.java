@@ -0,0 +1,190 @@
+package io.pptagent.tools.lease;
+
+import io.pptagent.tools.PresentationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * 幻灯片租约 - 多个客户端分工编辑同一演示文稿时，按幻灯片声明编辑权
+ * 客户端先租用要编辑的幻灯片，修改这些幻灯片时出示租约ID；未出示有效租约的修改被拒绝，
+ * 不同租约的幻灯片互不重叠，各自的修改互不干扰。租约到期（默认SLIDE_LEASE_TTL_SECONDS秒，60）后自动失效，
+ * 客户端异常退出不会永久占用幻灯片；到期前可用同一租约ID续租。
+ */
+public final class SlideLeases {
+    private static final Logger LOGGER = Logger.getLogger(SlideLeases.class.getName());
+
+    private static final long DEFAULT_TTL_SECONDS = 60;
+    private static final long MAX_TTL_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+    private static final long TTL_SECONDS = readTtlSeconds();
+
+    // 各演示文稿的有效租约，按租约ID索引
+    private static final Map<PresentationManager, Map<String, Lease>> LEASES =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private SlideLeases() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 租约
+     *
+     * @param leaseId 租约ID
+     * @param owner 持有者名称，仅用于展示
+     * @param slides 租用的幻灯片索引
+     * @param expiresAt 到期时间
+     */
+    public record Lease(String leaseId, String owner, Set<Integer> slides, long expiresAt) {
+        public long remainingMillis() {
+            return Math.max(0, expiresAt - System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 租用结果
+     *
+     * @param lease 获得的租约，被占用时为null
+     * @param conflicts 占用所请求幻灯片的其他租约
+     */
+    public record AcquireResult(Lease lease, List<Lease> conflicts) {
+        public boolean isAcquired() {
+            return lease != null;
+        }
+    }
+
+    /**
+     * 租用幻灯片，全部可用时才成功
+     * 传入已有的租约ID时续租并替换为新的幻灯片集合
+     *
+     * @param manager 演示文稿
+     * @param slides 幻灯片索引
+     * @param ttlSeconds 租期（秒），不大于0时使用默认值
+     * @param leaseId 要续租的租约ID，新租约为null
+     * @param owner 持有者名称，可为null
+     * @return 租用结果
+     */
+    public static AcquireResult acquire(PresentationManager manager, Collection<Integer> slides, long ttlSeconds,
+                                        String leaseId, String owner) {
+        long ttl = ttlSeconds > 0 ? Math.min(ttlSeconds, MAX_TTL_SECONDS) : TTL_SECONDS;
+        Map<String, Lease> leases = leasesOf(manager);
+        synchronized (leases) {
+            evictExpired(leases);
+            Lease previous = leaseId != null ? leases.get(leaseId) : null;
+            if (leaseId != null && previous == null) {
+                // 续租的租约已到期或不存在，按新租约处理
+                leaseId = null;
+            }
+
+            List<Lease> conflicts = new ArrayList<>();
+            for (Lease lease : leases.values()) {
+                if (!lease.leaseId().equals(leaseId) && !Collections.disjoint(lease.slides(), slides)) {
+                    conflicts.add(lease);
+                }
+            }
+            if (!conflicts.isEmpty()) {
+                return new AcquireResult(null, conflicts);
+            }
+
+            String id = leaseId != null ? leaseId : UUID.randomUUID().toString().substring(0, 8);
+            String holder = owner != null ? owner : previous != null ? previous.owner() : null;
+            Lease lease = new Lease(id, holder, Collections.unmodifiableSet(new TreeSet<>(slides)),
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttl));
+            leases.put(id, lease);
+            return new AcquireResult(lease, List.of());
+        }
+    }
+
+    /**
+     * 释放租约
+     *
+     * @return 租约是否存在
+     */
+    public static boolean release(PresentationManager manager, String leaseId) {
+        Map<String, Lease> leases = leasesOf(manager);
+        synchronized (leases) {
+            evictExpired(leases);
+            return leaseId != null && leases.remove(leaseId) != null;
+        }
+    }
+
+    /**
+     * 检查修改幻灯片是否被其他租约占用
+     *
+     * @param manager 演示文稿
+     * @param slideIndex 要修改的幻灯片，修改整个演示文稿时为-1（任一幻灯片被其他租约占用即冲突）
+     * @param leaseId 调用方出示的租约ID，可为null
+     * @return 占用该幻灯片的其他租约，可以修改时为null
+     */
+    public static Lease findBlockingLease(PresentationManager manager, int slideIndex, String leaseId) {
+        Map<String, Lease> leases = LEASES.get(manager);
+        if (leases == null) {
+            return null;
+        }
+        synchronized (leases) {
+            evictExpired(leases);
+            for (Lease lease : leases.values()) {
+                if (lease.leaseId().equals(leaseId)) {
+                    continue;
+                }
+                if (slideIndex < 0 || lease.slides().contains(slideIndex)) {
+                    return lease;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 获取演示文稿的所有有效租约
+     */
+    public static List<Lease> getLeases(PresentationManager manager) {
+        Map<String, Lease> leases = LEASES.get(manager);
+        if (leases == null) {
+            return List.of();
+        }
+        synchronized (leases) {
+            evictExpired(leases);
+            return new ArrayList<>(leases.values());
+        }
+    }
+
+    private static Map<String, Lease> leasesOf(PresentationManager manager) {
+        return LEASES.computeIfAbsent(manager, m -> new HashMap<>());
+    }
+
+    private static void evictExpired(Map<String, Lease> leases) {
+        long now = System.currentTimeMillis();
+        Iterator<Lease> it = leases.values().iterator();
+        while (it.hasNext()) {
+            Lease lease = it.next();
+            if (lease.expiresAt() <= now) {
+                it.remove();
+                LOGGER.info("幻灯片租约已到期: " + lease.leaseId() + " " + lease.slides());
+            }
+        }
+    }
+
+    private static long readTtlSeconds() {
+        String value = System.getenv("SLIDE_LEASE_TTL_SECONDS");
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_TTL_SECONDS;
+        }
+        try {
+            return Math.min(MAX_TTL_SECONDS, Math.max(1, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("无效的SLIDE_LEASE_TTL_SECONDS: " + value + "，使用默认值" + DEFAULT_TTL_SECONDS);
+            return DEFAULT_TTL_SECONDS;
+        }
+    }
+}
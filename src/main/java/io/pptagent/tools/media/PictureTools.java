@@ -77,6 +77,76 @@ public final class PictureTools {
         return new File(workspace, filePath).getAbsolutePath();
     }
     
+    /**
+     * 将图片加入演示文稿的图片集合，供多个图片框复用
+     * 
+     * @param pres 演示文稿
+     * @param imagePath 图片路径，与base64Image二选一
+     * @param base64Image Base64编码的图片数据
+     * @return 图片集合中的图片
+     * @throws IOException 文件读取失败时抛出
+     */
+    public static IPPImage addImage(Presentation pres, String imagePath, String base64Image) throws IOException {
+        if (imagePath != null && !imagePath.isEmpty()) {
+            File imageFile = new File(getFullPath(imagePath));
+            if (!imageFile.exists() || !imageFile.isFile()) {
+                throw new IOException("图片文件不存在: " + imageFile.getAbsolutePath());
+            }
+            try (FileInputStream in = new FileInputStream(imageFile)) {
+                return pres.getImages().addImage(in);
+            }
+        }
+        
+        if (base64Image == null || base64Image.trim().isEmpty()) {
+            throw new IllegalArgumentException("Base64图片数据为空");
+        }
+        
+        // 移除Base64前缀，如果有
+        String imageData = base64Image;
+        if (base64Image.contains(",")) {
+            imageData = base64Image.substring(base64Image.indexOf(",") + 1);
+        }
+        return pres.getImages().addImage(new ByteArrayInputStream(Base64.getDecoder().decode(imageData)));
+    }
+    
+    /**
+     * 使用已加入演示文稿的图片添加保持原比例的图片框
+     * 
+     * @param image 图片集合中的图片
+     * @param x X坐标
+     * @param y Y坐标
+     * @param width 宽度，不大于0时使用图片原始宽度
+     * @param height 高度，不大于0时使用图片原始高度
+     * @param slideIndex 幻灯片索引
+     * @return 添加图片框结果
+     */
+    public static AddPictureFrameResult addPictureFrame(IPPImage image, float x, float y, float width, float height, int slideIndex) {
+        try {
+            Presentation pres = PresentationManager.getInstance().getPresentation();
+            if (pres == null) {
+                return new AddPictureFrameResult(false, -1, "没有活动的演示文稿");
+            }
+            
+            ISlide slide = pres.getSlides().get_Item(slideIndex);
+            IPictureFrame pictureFrame = slide.getShapes().addPictureFrame(
+                ShapeType.Rectangle, 
+                x, y, 
+                width > 0 ? width : image.getWidth(), 
+                height > 0 ? height : image.getHeight(), 
+                image
+            );
+            
+            // 锁定纵横比以确保图片不会失真
+            pictureFrame.getPictureFrameLock().setAspectRatioLocked(true);
+            
+            int frameIndex = slide.getShapes().indexOf(pictureFrame);
+            return new AddPictureFrameResult(true, frameIndex, "图片框添加成功");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "添加图片框失败", e);
+            return new AddPictureFrameResult(false, -1, "添加图片框失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 从文件路径添加保持原比例的图片框
      * 
@@ -0,0 +1,398 @@
+package io.pptagent.tools.merge;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.aspose.slides.InterruptionTokenSource;
+import com.aspose.slides.LoadOptions;
+import com.aspose.slides.Presentation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.pptagent.App;
+import io.pptagent.tools.base.BaseTools;
+import io.pptagent.tools.table.TableTools;
+import io.pptagent.tools.template.TemplateTools;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 批量生成（邮件合并）工具函数
+ * 以一个模板演示文稿和CSV/JSONL数据文件为输入，每行数据生成一份独立的演示文稿。
+ * 每份演示文稿在工作线程中使用自己的{@link Presentation}实例构建，不经过{@code PresentationManager}，
+ * 工作线程数与CPU核数一致，任务在后台执行，可随时查询进度。
+ */
+public final class MailMergeTools {
+    private static final Logger LOGGER = Logger.getLogger(MailMergeTools.class.getName());
+
+    private static final Pattern TOKEN = Pattern.compile("\\{\\{([^}]+)}}");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Map<String, MergeJob> JOBS = new ConcurrentHashMap<>();
+
+    // 工作线程池，首次提交任务时创建
+    private static volatile ExecutorService executor;
+
+    private MailMergeTools() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum JobStatus {
+        RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    /**
+     * 表示批量生成任务进度的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class MergeJobStatus {
+        private final boolean success;
+        private final String jobId;
+        private final JobStatus status;
+        private final int total;
+        private final int completed;
+        private final int failed;
+        private final int retries;
+        private final double decksPerMinute;
+        private final long elapsedMs;
+        private final String outputDir;
+        private final List<String> errors;
+        private final String message;
+    }
+
+    /**
+     * 批量生成任务
+     */
+    private static final class MergeJob {
+        final String id;
+        final int total;
+        final String outputDir;
+        final long startTime = System.currentTimeMillis();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicInteger retries = new AtomicInteger();
+        final AtomicInteger finished = new AtomicInteger();
+        final AtomicLong endTime = new AtomicLong();
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        // 取消时中断正在加载或保存的行
+        final InterruptionTokenSource interruption = new InterruptionTokenSource();
+        volatile boolean cancelled;
+
+        MergeJob(String id, int total, String outputDir) {
+            this.id = id;
+            this.total = total;
+            this.outputDir = outputDir;
+        }
+
+        JobStatus status() {
+            if (cancelled) {
+                return JobStatus.CANCELLED;
+            }
+            if (finished.get() < total) {
+                return JobStatus.RUNNING;
+            }
+            return completed.get() == 0 && total > 0 ? JobStatus.FAILED : JobStatus.COMPLETED;
+        }
+
+        void rowFinished() {
+            if (finished.incrementAndGet() == total) {
+                endTime.set(System.currentTimeMillis());
+                LOGGER.info("批量生成任务" + id + "完成: 成功" + completed.get() + "份, 失败" + failed.get() + "份");
+            }
+        }
+    }
+
+    /**
+     * 获取完整的文件路径
+     *
+     * @param filePath 文件路径
+     * @return 完整的文件路径
+     */
+    private static String getFullPath(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件路径不能为空");
+        }
+
+        File file = new File(filePath);
+        if (file.isAbsolute()) {
+            return filePath; // 如果是绝对路径，直接返回
+        }
+
+        // 使用工作目录
+        String workspace = App.getWorkspace();
+        return new File(workspace, filePath).getAbsolutePath();
+    }
+
+    private static ExecutorService executor() {
+        if (executor == null) {
+            synchronized (MailMergeTools.class) {
+                if (executor == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                        Thread thread = new Thread(r, "mail-merge-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 启动批量生成任务
+     *
+     * @param templatePath 模板演示文稿路径
+     * @param dataPath 数据文件路径，.csv（首行为列名）或.jsonl（每行一个JSON对象）
+     * @param outputPattern 输出文件名模式，支持{{列名}}和{{rowIndex}}，为空时使用deck_{{rowIndex}}；
+     *                      多行生成相同文件名时，后出现的行追加_行号
+     * @param outputDir 输出目录，为空时使用工作目录下的merge/任务ID
+     * @param format 保存格式(PPTX/PPT/PDF)
+     * @param maxRetries 每行失败后的最大重试次数
+     * @return 任务进度
+     */
+    public static MergeJobStatus startMerge(String templatePath, String dataPath, String outputPattern,
+                                            String outputDir, String format, int maxRetries) {
+        try {
+            // 模板只读取一次，每行从内存中的副本构建
+            byte[] template = Files.readAllBytes(new File(getFullPath(templatePath)).toPath());
+            List<Map<String, String>> rows = readRows(new File(getFullPath(dataPath)));
+
+            String jobId = UUID.randomUUID().toString().substring(0, 8);
+            File dir = new File(getFullPath(outputDir != null && !outputDir.isEmpty() ? outputDir : "merge/" + jobId));
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("无法创建输出目录: " + dir.getAbsolutePath());
+            }
+
+            String pattern = outputPattern != null && !outputPattern.isEmpty() ? outputPattern : "deck_{{rowIndex}}";
+            String extension = "." + (format != null ? format : "PPTX").toLowerCase(Locale.ROOT);
+            int saveFormat = BaseTools.getFormatValue(format);
+
+            // 并行生成的行写入同名文件会互相覆盖，提交前为每行确定唯一的文件名
+            List<String> fileNames = new ArrayList<>(rows.size());
+            Set<String> used = new HashSet<>();
+            for (int i = 0; i < rows.size(); i++) {
+                fileNames.add(uniqueFileName(outputFileName(pattern, rows.get(i), i, extension), extension, i, used));
+            }
+
+            MergeJob job = new MergeJob(jobId, rows.size(), dir.getAbsolutePath());
+            JOBS.put(jobId, job);
+
+            for (int i = 0; i < rows.size(); i++) {
+                int rowIndex = i;
+                Map<String, String> values = rows.get(i);
+                File output = new File(dir, fileNames.get(i));
+                executor().execute(() -> buildRow(job, template, values, rowIndex, output, saveFormat, maxRetries));
+            }
+            if (rows.isEmpty()) {
+                job.endTime.set(System.currentTimeMillis());
+            }
+
+            LOGGER.info("批量生成任务" + jobId + "已提交: " + rows.size() + "行");
+            return toStatus(job, "批量生成任务已启动");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "启动批量生成任务失败", e);
+            return new MergeJobStatus(false, null, JobStatus.FAILED, 0, 0, 0, 0, 0, 0, null,
+                List.of(), "启动批量生成任务失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询批量生成任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    public static MergeJobStatus getStatus(String jobId) {
+        MergeJob job = jobId != null ? JOBS.get(jobId) : null;
+        if (job == null) {
+            return new MergeJobStatus(false, jobId, null, 0, 0, 0, 0, 0, 0, null, List.of(), "任务不存在: " + jobId);
+        }
+        return toStatus(job, "查询成功");
+    }
+
+    /**
+     * 取消批量生成任务，正在加载或保存的行通过Aspose中断令牌立即中止
+     *
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    public static MergeJobStatus cancel(String jobId) {
+        MergeJob job = jobId != null ? JOBS.get(jobId) : null;
+        if (job == null) {
+            return new MergeJobStatus(false, jobId, null, 0, 0, 0, 0, 0, 0, null, List.of(), "任务不存在: " + jobId);
+        }
+        job.cancelled = true;
+        job.interruption.interrupt();
+        job.endTime.compareAndSet(0, System.currentTimeMillis());
+        return toStatus(job, "任务已取消");
+    }
+
+    /**
+     * 关闭工作线程池
+     */
+    public static void shutdown() {
+        ExecutorService current = executor;
+        if (current != null) {
+            current.shutdownNow();
+            try {
+                current.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void buildRow(MergeJob job, byte[] template, Map<String, String> values, int rowIndex,
+                                 File output, int saveFormat, int maxRetries) {
+        try {
+            for (int attempt = 0; ; attempt++) {
+                if (job.cancelled) {
+                    return;
+                }
+                try {
+                    LoadOptions loadOptions = new LoadOptions();
+                    loadOptions.setInterruptionToken(job.interruption.getToken());
+                    Presentation pres = new Presentation(new ByteArrayInputStream(template), loadOptions);
+                    try {
+                        for (int s = 0; s < pres.getSlides().size(); s++) {
+                            TemplateTools.fillPlaceholders(pres.getSlides().get_Item(s), values);
+                        }
+                        pres.save(output.getAbsolutePath(), saveFormat);
+                    } finally {
+                        pres.dispose();
+                    }
+                    job.completed.incrementAndGet();
+                    return;
+                } catch (Exception e) {
+                    if (job.cancelled) {
+                        // 被取消中断，不计为失败
+                        output.delete();
+                        return;
+                    }
+                    if (attempt >= maxRetries) {
+                        job.failed.incrementAndGet();
+                        job.errors.add("row " + rowIndex + ": " + e.getMessage());
+                        LOGGER.log(Level.WARNING, "生成第" + rowIndex + "行演示文稿失败", e);
+                        return;
+                    }
+                    job.retries.incrementAndGet();
+                }
+            }
+        } finally {
+            job.rowFinished();
+        }
+    }
+
+    private static MergeJobStatus toStatus(MergeJob job, String message) {
+        long end = job.endTime.get();
+        long elapsed = (end > 0 ? end : System.currentTimeMillis()) - job.startTime;
+        int completed = job.completed.get();
+        double decksPerMinute = elapsed > 0 ? completed * 60000.0 / elapsed : 0;
+        List<String> errors;
+        synchronized (job.errors) {
+            errors = new ArrayList<>(job.errors);
+        }
+        return new MergeJobStatus(true, job.id, job.status(), job.total, completed, job.failed.get(),
+            job.retries.get(), Math.round(decksPerMinute * 10) / 10.0, elapsed, job.outputDir, errors, message);
+    }
+
+    /**
+     * 生成输出文件名，替换{{列名}}和{{rowIndex}}并去掉文件名中的非法字符
+     */
+    private static String outputFileName(String pattern, Map<String, String> values, int rowIndex, String extension) {
+        Matcher matcher = TOKEN.matcher(pattern);
+        StringBuilder name = new StringBuilder();
+        while (matcher.find()) {
+            String key = matcher.group(1).trim();
+            String value = "rowIndex".equals(key) ? String.valueOf(rowIndex) : values.getOrDefault(key, "");
+            matcher.appendReplacement(name, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(name);
+        String fileName = name.toString().replaceAll("[\\\\/:*?\"<>|]", "_");
+        return fileName.toLowerCase(Locale.ROOT).endsWith(extension) ? fileName : fileName + extension;
+    }
+
+    /**
+     * 文件名为空或已被其他行使用时追加_行号（仍冲突时再追加序号），按不区分大小写比较，
+     * 在大小写不敏感的文件系统上也不会覆盖
+     */
+    private static String uniqueFileName(String fileName, String extension, int rowIndex, Set<String> used) {
+        String base = fileName.substring(0, fileName.length() - extension.length());
+        if (base.isBlank()) {
+            base = "deck_" + rowIndex;
+        }
+        String candidate = base + extension;
+        for (int n = 1; !used.add(candidate.toLowerCase(Locale.ROOT)); n++) {
+            candidate = base + "_" + rowIndex + (n > 1 ? "_" + n : "") + extension;
+        }
+        return candidate;
+    }
+
+    /**
+     * 读取数据行，CSV首行为列名，JSONL每行一个JSON对象
+     */
+    private static List<Map<String, String>> readRows(File dataFile) throws IOException {
+        if (!dataFile.isFile()) {
+            throw new IOException("数据文件不存在: " + dataFile.getAbsolutePath());
+        }
+
+        List<Map<String, String>> rows = new ArrayList<>();
+        if (dataFile.getName().toLowerCase(Locale.ROOT).endsWith(".jsonl")) {
+            try (BufferedReader reader = Files.newBufferedReader(dataFile.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Map<?, ?> object = MAPPER.readValue(line, Map.class);
+                    Map<String, String> row = new LinkedHashMap<>();
+                    object.forEach((k, v) -> row.put(String.valueOf(k), v == null ? "" : String.valueOf(v)));
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+
+        List<List<String>> csv = TableTools.readCsv(dataFile);
+        if (csv.isEmpty()) {
+            return rows;
+        }
+        List<String> header = csv.get(0);
+        for (int r = 1; r < csv.size(); r++) {
+            List<String> cells = csv.get(r);
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int c = 0; c < header.size(); c++) {
+                row.put(header.get(c).trim(), c < cells.size() ? cells.get(c) : "");
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
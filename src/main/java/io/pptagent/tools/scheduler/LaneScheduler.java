@@ -0,0 +1,229 @@
+package io.pptagent.tools.scheduler;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * 工具调用调度器 - 按通道限制并发，在会话之间公平排队
+ * 工具调用分为三个通道：交互编辑、读取、重型导出/渲染，各通道的并发数独立配置
+ * （环境变量LANE_INTERACTIVE_CONCURRENCY、LANE_READ_CONCURRENCY、LANE_HEAVY_CONCURRENCY），
+ * 因此重型调用排满时不影响读取和编辑。通道满时调用按会话排队，空出的名额在有等待的会话之间轮转分配，
+ * 一个会话连续提交的大量调用不会让其他会话饿死。
+ */
+public final class LaneScheduler {
+    private static final Logger LOGGER = Logger.getLogger(LaneScheduler.class.getName());
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    // 导出、渲染和批量导入类工具，其余以get开头的工具为读取，其他为交互编辑
+    private static final Set<String> HEAVY_TOOLS = Set.of(
+        "savePresentation", "addPictureFrame", "addSvgImage", "setBackgroundSvg",
+        "buildPresentationFromSpec", "loadTemplate", "addSlideFromTemplate", "importSlides", "startMailMerge");
+
+    private static final Map<Lane, LaneQueue> LANES = new EnumMap<>(Lane.class);
+
+    static {
+        LANES.put(Lane.INTERACTIVE, new LaneQueue(readConcurrency("LANE_INTERACTIVE_CONCURRENCY", CORES)));
+        LANES.put(Lane.READ, new LaneQueue(readConcurrency("LANE_READ_CONCURRENCY", CORES * 2)));
+        LANES.put(Lane.HEAVY, new LaneQueue(readConcurrency("LANE_HEAVY_CONCURRENCY", Math.max(1, CORES / 4))));
+    }
+
+    private LaneScheduler() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 调度通道
+     */
+    public enum Lane {
+        INTERACTIVE, READ, HEAVY
+    }
+
+    /**
+     * 表示通道统计信息的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class LaneStats {
+        private final Lane lane;
+        private final int concurrency;
+        private final int running;
+        private final int queued;
+        private final int waitingSessions;
+        private final long granted;
+        private final double avgWaitMs;
+        private final double maxWaitMs;
+    }
+
+    /**
+     * 通道名额，调用结束后必须释放
+     */
+    public static final class Slot implements AutoCloseable {
+        private final LaneQueue queue;
+        private boolean released;
+
+        private Slot(LaneQueue queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                queue.release();
+            }
+        }
+    }
+
+    /**
+     * 获取工具所属的通道
+     *
+     * @param toolName 工具名称
+     * @return 通道
+     */
+    public static Lane laneOf(String toolName) {
+        if (HEAVY_TOOLS.contains(toolName)) {
+            return Lane.HEAVY;
+        }
+        return toolName.startsWith("get") ? Lane.READ : Lane.INTERACTIVE;
+    }
+
+    /**
+     * 申请通道名额，通道已满时在所属会话的队列中等待
+     *
+     * @param lane 通道
+     * @param sessionKey 会话标识
+     * @return 通道名额
+     * @throws InterruptedException 等待时被中断
+     */
+    public static Slot acquire(Lane lane, Object sessionKey) throws InterruptedException {
+        LaneQueue queue = LANES.get(lane);
+        queue.await(sessionKey);
+        return new Slot(queue);
+    }
+
+    /**
+     * 获取各通道的统计信息
+     */
+    public static List<LaneStats> getStats() {
+        List<LaneStats> stats = new ArrayList<>();
+        LANES.forEach((lane, queue) -> stats.add(queue.stats(lane)));
+        return stats;
+    }
+
+    private static int readConcurrency(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("无效的" + name + ": " + value + "，使用默认值" + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 排队中的调用
+     */
+    private static final class Ticket {
+        final long enqueuedAt = System.nanoTime();
+        boolean granted;
+    }
+
+    /**
+     * 单个通道：并发计数和按会话划分的等待队列
+     * 等待的会话按插入顺序轮转，每轮为队首会话分配一个名额后将其移到队尾
+     */
+    private static final class LaneQueue {
+        private final int concurrency;
+        private int running;
+        private final LinkedHashMap<Object, ArrayDeque<Ticket>> waiting = new LinkedHashMap<>();
+        private int queued;
+        private long granted;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        LaneQueue(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        synchronized void await(Object sessionKey) throws InterruptedException {
+            Ticket ticket = new Ticket();
+            if (running < concurrency && waiting.isEmpty()) {
+                grant(ticket);
+                return;
+            }
+            waiting.computeIfAbsent(sessionKey, key -> new ArrayDeque<>()).add(ticket);
+            queued++;
+            try {
+                while (!ticket.granted) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                if (ticket.granted) {
+                    // 中断前已分配到名额，交还给其他等待者
+                    release();
+                } else {
+                    ArrayDeque<Ticket> tickets = waiting.get(sessionKey);
+                    if (tickets != null && tickets.remove(ticket)) {
+                        queued--;
+                        if (tickets.isEmpty()) {
+                            waiting.remove(sessionKey);
+                        }
+                    }
+                }
+                throw e;
+            }
+        }
+
+        synchronized void release() {
+            running--;
+            dispatch();
+        }
+
+        synchronized LaneStats stats(Lane lane) {
+            return new LaneStats(lane, concurrency, running, queued, waiting.size(), granted,
+                granted > 0 ? totalWaitNanos / 1e6 / granted : 0, maxWaitNanos / 1e6);
+        }
+
+        private void dispatch() {
+            boolean dispatched = false;
+            while (running < concurrency && !waiting.isEmpty()) {
+                Iterator<Map.Entry<Object, ArrayDeque<Ticket>>> it = waiting.entrySet().iterator();
+                Map.Entry<Object, ArrayDeque<Ticket>> head = it.next();
+                it.remove();
+                Ticket ticket = head.getValue().poll();
+                if (!head.getValue().isEmpty()) {
+                    waiting.put(head.getKey(), head.getValue());
+                }
+                queued--;
+                grant(ticket);
+                dispatched = true;
+            }
+            if (dispatched) {
+                notifyAll();
+            }
+        }
+
+        private void grant(Ticket ticket) {
+            ticket.granted = true;
+            running++;
+            granted++;
+            long wait = System.nanoTime() - ticket.enqueuedAt;
+            totalWaitNanos += wait;
+            maxWaitNanos = Math.max(maxWaitNanos, wait);
+        }
+    }
+}
@@ -129,6 +129,33 @@ public final class SlideTools {
         }
     }
     
+    /**
+     * 复制幻灯片到演示文稿末尾
+     * 追加而不是插入到原幻灯片之后，已有幻灯片的索引（以及按索引记录的版本和租约）保持不变
+     * 
+     * @param sourceSlideIndex 要复制的幻灯片索引
+     * @return 添加幻灯片结果，slideIndex为副本的索引
+     */
+    public static AddSlideResult duplicateSlide(int sourceSlideIndex) {
+        try {
+            Presentation pres = PresentationManager.getInstance().getPresentation();
+            if (pres == null) {
+                return new AddSlideResult(false, -1, "没有活动的演示文稿");
+            }
+            if (sourceSlideIndex < 0 || sourceSlideIndex >= pres.getSlides().size()) {
+                return new AddSlideResult(false, -1, "无效的幻灯片索引: " + sourceSlideIndex);
+            }
+
+            // 同一演示文稿内克隆，沿用原幻灯片的版式和母版
+            int slideIndex = pres.getSlides().addClone(pres.getSlides().get_Item(sourceSlideIndex))
+                .getSlideNumber() - 1;
+            return new AddSlideResult(true, slideIndex, "幻灯片复制成功");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "复制幻灯片失败", e);
+            return new AddSlideResult(false, -1, "复制幻灯片失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 选择当前操作的幻灯片
      * 
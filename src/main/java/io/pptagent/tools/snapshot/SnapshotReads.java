@@ -0,0 +1,132 @@
+package io.pptagent.tools.snapshot;
+
+import com.aspose.slides.Presentation;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.info.InfoTools;
+import io.pptagent.tools.info.InfoTools.ShapeInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 快照读取 - 只读工具读取不可变快照，与编辑并行执行
+ * 每次修改提交后，演示文稿的只读快照（各幻灯片的形状位置、尺寸、类型和文本）按幻灯片版本增量更新：
+ * 未修改的幻灯片复用上一版快照，只重新捕获修改过的幻灯片。只读工具直接读取当前快照，
+ * 不访问可变的{@link Presentation}，因此无需等待编辑锁；快照过期时才在编辑锁内重新捕获。
+ */
+public final class SnapshotReads {
+
+    private static final AtomicLong SNAPSHOT_READS = new AtomicLong();
+    private static final AtomicLong CAPTURES = new AtomicLong();
+    private static final AtomicLong CAPTURED_SLIDES = new AtomicLong();
+
+    private SnapshotReads() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 单张幻灯片的不可变快照
+     *
+     * @param version 捕获时的幻灯片版本
+     * @param shapes 形状信息
+     */
+    public record SlideView(String version, List<ShapeInfo> shapes) {}
+
+    /**
+     * 整个演示文稿的不可变快照
+     *
+     * @param version 捕获时的修改次数
+     * @param slides 各幻灯片快照
+     */
+    public record DeckView(long version, List<SlideView> slides) {}
+
+    /**
+     * 快照读取统计
+     */
+    public record Stats(long snapshotReads, long captures, long capturedSlides) {}
+
+    /**
+     * 获取当前演示文稿的最新快照，快照过期时在编辑锁内重新捕获
+     *
+     * @return 与最近一次提交一致的快照
+     */
+    public static DeckView current() {
+        PresentationManager manager = PresentationManager.getInstance();
+        DeckView view = manager.getView();
+        if (view != null && view.version() == manager.getChangeCount()) {
+            SNAPSHOT_READS.incrementAndGet();
+            return view;
+        }
+        synchronized (manager.getEditLock()) {
+            return capture(manager);
+        }
+    }
+
+    /**
+     * 修改提交后更新快照，调用方需持有编辑锁
+     *
+     * @param manager 演示文稿管理器
+     */
+    public static void commit(PresentationManager manager) {
+        capture(manager);
+    }
+
+    /**
+     * 从快照获取幻灯片的形状信息
+     *
+     * @param slideIndex 幻灯片索引
+     * @return 形状信息列表，幻灯片不存在时为空
+     */
+    public static List<ShapeInfo> getShapesInfo(int slideIndex) {
+        SlideView slide = getSlide(slideIndex);
+        return slide != null ? slide.shapes() : List.of();
+    }
+
+    /**
+     * 从快照获取单张幻灯片，其版本可作为该幻灯片的etag
+     *
+     * @param slideIndex 幻灯片索引
+     * @return 幻灯片快照，幻灯片不存在时为null
+     */
+    public static SlideView getSlide(int slideIndex) {
+        List<SlideView> slides = current().slides();
+        return slideIndex >= 0 && slideIndex < slides.size() ? slides.get(slideIndex) : null;
+    }
+
+    /**
+     * 获取快照读取统计
+     */
+    public static Stats getStats() {
+        return new Stats(SNAPSHOT_READS.get(), CAPTURES.get(), CAPTURED_SLIDES.get());
+    }
+
+    /**
+     * 增量捕获快照：版本未变的幻灯片复用已有快照
+     */
+    private static DeckView capture(PresentationManager manager) {
+        long version = manager.getChangeCount();
+        DeckView previous = manager.getView();
+        if (previous != null && previous.version() == version) {
+            return previous;
+        }
+
+        Presentation pres = manager.getPresentation();
+        int slideCount = InfoTools.getSlideCount(pres);
+        List<SlideView> slides = new ArrayList<>(slideCount);
+        for (int i = 0; i < slideCount; i++) {
+            String slideVersion = manager.getSlideVersion(i);
+            SlideView old = previous != null && i < previous.slides().size() ? previous.slides().get(i) : null;
+            if (old != null && old.version().equals(slideVersion)) {
+                slides.add(old);
+            } else {
+                slides.add(new SlideView(slideVersion, List.copyOf(InfoTools.getShapesInfo(pres, i))));
+                CAPTURED_SLIDES.incrementAndGet();
+            }
+        }
+        CAPTURES.incrementAndGet();
+        DeckView view = new DeckView(version, List.copyOf(slides));
+        manager.setView(view);
+        return view;
+    }
+}
@@ -0,0 +1,373 @@
+package io.pptagent.tools.spec;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import io.pptagent.tools.chart.ChartTools.ChartParams;
+import io.pptagent.tools.chart.ChartTools.ChartTypeEnum;
+import io.pptagent.tools.chart.ChartTools.SeriesData;
+
+/**
+ * 演示文稿描述编译器
+ * 将JSON形式的演示文稿描述一次性校验并编译为执行计划：
+ * 样式合并到元素、颜色提前解析校验、相同图片去重、图表系列数据预先构建。
+ * 编译阶段不接触演示文稿，任何错误都会在执行前一起返回。
+ */
+public final class DeckSpecCompiler {
+
+    private DeckSpecCompiler() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 元素类型
+     */
+    public enum ElementType {
+        TEXT, SHAPE, LINE, CHART, TABLE, IMAGE, SVG
+    }
+
+    /**
+     * 编译后的演示文稿执行计划
+     */
+    public record DeckPlan(boolean newPresentation, List<SlidePlan> slides, List<ImageSource> images,
+                           int elementCount, String savePath, String format, Integer parallelism) {}
+
+    /**
+     * 幻灯片执行计划，templatePath不为空时从模板创建
+     */
+    public record SlidePlan(String path, String layout, String templatePath, Integer templateSlideIndex,
+                            String templateLayout, Map<String, String> values, String background,
+                            List<ElementPlan> elements) {}
+
+    /**
+     * 元素执行计划，props中为已合并样式、已校验颜色的属性
+     */
+    public record ElementPlan(String path, ElementType type, float x, float y, float width, float height,
+                              Map<String, Object> props) {}
+
+    /**
+     * 去重后的图片来源
+     */
+    public record ImageSource(String imagePath, String base64) {}
+
+    /**
+     * 编译结果，errors不为空时plan为null
+     */
+    public record CompileResult(DeckPlan plan, List<String> errors) {}
+
+    /**
+     * 编译演示文稿描述
+     *
+     * @param spec 演示文稿描述（已解析的JSON对象）
+     * @return 编译结果
+     */
+    @SuppressWarnings("unchecked")
+    public static CompileResult compile(Map<String, Object> spec) {
+        Compilation c = new Compilation();
+        if (spec == null) {
+            c.errors.add("spec: 不能为空");
+            return new CompileResult(null, c.errors);
+        }
+
+        // 样式表
+        Object stylesObj = spec.get("styles");
+        if (stylesObj instanceof Map<?, ?> styles) {
+            for (Map.Entry<?, ?> entry : styles.entrySet()) {
+                if (entry.getValue() instanceof Map<?, ?> style) {
+                    c.styles.put(String.valueOf(entry.getKey()), (Map<String, Object>) style);
+                } else {
+                    c.errors.add("styles." + entry.getKey() + ": 必须是对象");
+                }
+            }
+        }
+
+        List<SlidePlan> slides = new ArrayList<>();
+        Object slidesObj = spec.get("slides");
+        if (!(slidesObj instanceof List<?> slideList) || slideList.isEmpty()) {
+            c.errors.add("slides: 至少需要一张幻灯片");
+        } else {
+            for (int i = 0; i < slideList.size(); i++) {
+                String path = "slides[" + i + "]";
+                if (slideList.get(i) instanceof Map<?, ?> slideSpec) {
+                    slides.add(compileSlide(c, path, (Map<String, Object>) slideSpec));
+                } else {
+                    c.errors.add(path + ": 必须是对象");
+                }
+            }
+        }
+
+        // 并行构建的工作线程数，0表示按CPU核数
+        Integer parallelism = null;
+        Object parallelismObj = spec.get("parallelism");
+        if (parallelismObj instanceof Number n && n.intValue() >= 0 && n.doubleValue() == n.intValue()) {
+            parallelism = n.intValue();
+        } else if (parallelismObj != null) {
+            c.errors.add("parallelism: 必须是非负整数");
+        }
+
+        if (!c.errors.isEmpty()) {
+            return new CompileResult(null, c.errors);
+        }
+
+        boolean newPresentation = !Boolean.FALSE.equals(spec.get("newPresentation"));
+        DeckPlan plan = new DeckPlan(newPresentation, slides, new ArrayList<>(c.images.keySet()),
+            c.elementCount, (String) spec.get("savePath"), (String) spec.get("format"), parallelism);
+        return new CompileResult(plan, c.errors);
+    }
+
+    /**
+     * 编译过程中的共享状态
+     */
+    private static final class Compilation {
+        final List<String> errors = new ArrayList<>();
+        final Map<String, Map<String, Object>> styles = new HashMap<>();
+        final Map<String, String> resolvedColors = new HashMap<>();
+        final Map<ImageSource, Integer> images = new LinkedHashMap<>();
+        int elementCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SlidePlan compileSlide(Compilation c, String path, Map<String, Object> slideSpec) {
+        String background = color(c, path + ".background", slideSpec.get("background"));
+
+        String templatePath = null;
+        Integer templateSlideIndex = null;
+        String templateLayout = null;
+        Map<String, String> values = new HashMap<>();
+        if (slideSpec.get("template") instanceof Map<?, ?> template) {
+            templatePath = (String) template.get("path");
+            if (templatePath == null || templatePath.isEmpty()) {
+                c.errors.add(path + ".template.path: 不能为空");
+            }
+            if (template.get("slideIndex") instanceof Number n) {
+                templateSlideIndex = n.intValue();
+            }
+            templateLayout = (String) template.get("layoutName");
+            if (template.get("values") instanceof Map<?, ?> raw) {
+                raw.forEach((k, v) -> values.put(String.valueOf(k), v == null ? "" : String.valueOf(v)));
+            }
+        }
+
+        List<ElementPlan> elements = new ArrayList<>();
+        if (slideSpec.get("elements") instanceof List<?> elementList) {
+            for (int i = 0; i < elementList.size(); i++) {
+                String elementPath = path + ".elements[" + i + "]";
+                if (elementList.get(i) instanceof Map<?, ?> elementSpec) {
+                    ElementPlan element = compileElement(c, elementPath, (Map<String, Object>) elementSpec);
+                    if (element != null) {
+                        elements.add(element);
+                        c.elementCount++;
+                    }
+                } else {
+                    c.errors.add(elementPath + ": 必须是对象");
+                }
+            }
+        }
+
+        String layout = slideSpec.get("layout") instanceof String s ? s : "BLANK";
+        return new SlidePlan(path, layout, templatePath, templateSlideIndex, templateLayout, values, background, elements);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ElementPlan compileElement(Compilation c, String path, Map<String, Object> elementSpec) {
+        // 合并样式：元素自身属性优先
+        Map<String, Object> props = new HashMap<>();
+        Object styleName = elementSpec.get("style");
+        if (styleName != null) {
+            Map<String, Object> style = c.styles.get(String.valueOf(styleName));
+            if (style == null) {
+                c.errors.add(path + ".style: 未定义的样式 " + styleName);
+            } else {
+                props.putAll(style);
+            }
+        }
+        props.putAll(elementSpec);
+
+        ElementType type;
+        try {
+            type = ElementType.valueOf(String.valueOf(props.get("type")).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            c.errors.add(path + ".type: 不支持的元素类型 " + props.get("type"));
+            return null;
+        }
+
+        // 预先解析所有颜色属性
+        for (String key : List.of("color", "fillColor", "borderColor", "backgroundColor",
+                "headerColor", "headerTextColor", "zebraColor")) {
+            if (props.containsKey(key)) {
+                props.put(key, color(c, path + "." + key, props.get(key)));
+            }
+        }
+
+        float x = number(props.get("x"), 0f);
+        float y = number(props.get("y"), 0f);
+        float width = number(props.get("width"), 0f);
+        float height = number(props.get("height"), 0f);
+
+        switch (type) {
+            case TEXT, SHAPE -> {
+                if (props.containsKey("text")) {
+                    props.put("text", compileText(c, path + ".text", props.get("text"), props));
+                }
+            }
+            case LINE -> {
+                // 线条使用起止坐标
+                x = number(props.get("x1"), x);
+                y = number(props.get("y1"), y);
+                width = number(props.get("x2"), x);
+                height = number(props.get("y2"), y);
+            }
+            case CHART -> compileChart(c, path, props, x, y, width, height);
+            case TABLE -> {
+                if (!(props.get("data") instanceof List<?>) && !(props.get("csvPath") instanceof String)) {
+                    c.errors.add(path + ": 表格需要data或csvPath");
+                }
+            }
+            case IMAGE -> {
+                String imagePath = props.get("path") instanceof String s ? s : null;
+                String base64 = props.get("base64") instanceof String s ? s : null;
+                if (imagePath == null && base64 == null) {
+                    c.errors.add(path + ": 图片需要path或base64");
+                } else {
+                    // 相同来源的图片只加载一次
+                    ImageSource source = new ImageSource(imagePath, imagePath == null ? base64 : null);
+                    props.put("imageIndex", c.images.computeIfAbsent(source, k -> c.images.size()));
+                }
+            }
+            case SVG -> {
+                if (!(props.get("svgContent") instanceof String)) {
+                    c.errors.add(path + ".svgContent: 不能为空");
+                }
+            }
+        }
+
+        return new ElementPlan(path, type, x, y, width, height, props);
+    }
+
+    /**
+     * 文本可以是字符串或格式化文本数组，缺省的字体属性从元素样式继承
+     */
+    private static List<Map<String, Object>> compileText(Compilation c, String path, Object text, Map<String, Object> props) {
+        List<Map<String, Object>> parts = new ArrayList<>();
+        if (text instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i) instanceof Map<?, ?> raw) {
+                    Map<String, Object> part = new HashMap<>();
+                    raw.forEach((k, v) -> part.put(String.valueOf(k), v));
+                    if (part.containsKey("color")) {
+                        part.put("color", color(c, path + "[" + i + "].color", part.get("color")));
+                    }
+                    parts.add(part);
+                } else {
+                    parts.add(new HashMap<>(Map.of("text", String.valueOf(list.get(i)))));
+                }
+            }
+        } else if (text != null) {
+            Map<String, Object> part = new HashMap<>();
+            part.put("text", String.valueOf(text));
+            parts.add(part);
+        }
+
+        for (Map<String, Object> part : parts) {
+            for (String key : List.of("fontName", "fontSize", "bold", "italic")) {
+                if (!part.containsKey(key) && props.containsKey(key)) {
+                    part.put(key, props.get(key));
+                }
+            }
+            if (!part.containsKey("color") && props.get("color") != null) {
+                part.put("color", props.get("color"));
+            }
+            part.values().removeIf(v -> v == null);
+        }
+        return parts;
+    }
+
+    /**
+     * 预先构建图表参数和系列数据
+     */
+    private static void compileChart(Compilation c, String path, Map<String, Object> props,
+                                     float x, float y, float width, float height) {
+        ChartTypeEnum chartType;
+        try {
+            chartType = ChartTypeEnum.valueOf(String.valueOf(props.getOrDefault("chartType", "COLUMN")).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            c.errors.add(path + ".chartType: 不支持的图表类型 " + props.get("chartType"));
+            return;
+        }
+
+        List<String> categories = new ArrayList<>();
+        if (props.get("categories") instanceof List<?> list) {
+            list.forEach(v -> categories.add(String.valueOf(v)));
+        } else {
+            c.errors.add(path + ".categories: 不能为空");
+        }
+
+        List<SeriesData> series = new ArrayList<>();
+        if (props.get("series") instanceof List<?> list && !list.isEmpty()) {
+            for (int i = 0; i < list.size(); i++) {
+                if (!(list.get(i) instanceof Map<?, ?> s) || !(s.get("values") instanceof List<?> rawValues)) {
+                    c.errors.add(path + ".series[" + i + "]: 需要name和values");
+                    continue;
+                }
+                List<Double> values = new ArrayList<>(rawValues.size());
+                for (Object v : rawValues) {
+                    values.add(v instanceof Number n ? n.doubleValue() : 0d);
+                }
+                series.add(SeriesData.builder()
+                    .name(s.get("name") == null ? "系列" + (i + 1) : String.valueOf(s.get("name")))
+                    .values(values)
+                    .color(color(c, path + ".series[" + i + "].color", s.get("color")))
+                    .build());
+            }
+        } else {
+            c.errors.add(path + ".series: 至少需要一个系列");
+        }
+
+        props.put("chartTypeEnum", chartType);
+        props.put("categoryList", categories);
+        props.put("seriesList", series);
+        props.put("chartParams", ChartParams.builder()
+            .x(x)
+            .y(y)
+            .width(width)
+            .height(height)
+            .title(props.get("title") == null ? null : String.valueOf(props.get("title")))
+            .backgroundColor((String) props.get("backgroundColor"))
+            .borderColor((String) props.get("borderColor"))
+            .borderWidth(number(props.get("borderWidth"), 1f))
+            .maxPoints(props.get("maxPoints") instanceof Number n ? n.intValue() : null)
+            .downsampleMethod((String) props.get("downsampleMethod"))
+            .build());
+    }
+
+    /**
+     * 校验并规范化颜色，同一颜色只解析一次
+     */
+    private static String color(Compilation c, String path, Object value) {
+        if (value == null) {
+            return null;
+        }
+        String raw = String.valueOf(value).trim();
+        if (raw.isEmpty()) {
+            return null;
+        }
+        return c.resolvedColors.computeIfAbsent(raw, k -> {
+            try {
+                Color color = Color.decode(k.startsWith("#") || k.startsWith("0x") ? k : "#" + k);
+                return String.format("#%06X", color.getRGB() & 0xFFFFFF);
+            } catch (NumberFormatException e) {
+                c.errors.add(path + ": 无效的颜色 " + k);
+                return null;
+            }
+        });
+    }
+
+    private static float number(Object value, float defaultValue) {
+        return value instanceof Number n ? n.floatValue() : defaultValue;
+    }
+}
@@ -0,0 +1,356 @@
+package io.pptagent.tools.spec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.aspose.slides.IPPImage;
+import com.aspose.slides.Presentation;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.background.BackgroundTools;
+import io.pptagent.tools.base.BaseTools;
+import io.pptagent.tools.base.BaseTools.SaveResult;
+import io.pptagent.tools.cancel.CancellationToken;
+import io.pptagent.tools.cancel.CancellationToken.CancelledException;
+import io.pptagent.tools.chart.ChartTools;
+import io.pptagent.tools.chart.ChartTools.ChartParams;
+import io.pptagent.tools.chart.ChartTools.ChartTypeEnum;
+import io.pptagent.tools.chart.ChartTools.SeriesData;
+import io.pptagent.tools.media.PictureTools;
+import io.pptagent.tools.shape.ShapeTools;
+import io.pptagent.tools.shape.ShapeTools.LineParams;
+import io.pptagent.tools.shape.ShapeTools.ShapeParams;
+import io.pptagent.tools.slides.SlideTools;
+import io.pptagent.tools.slides.SlideTools.AddSlideResult;
+import io.pptagent.tools.spec.DeckSpecCompiler.CompileResult;
+import io.pptagent.tools.spec.DeckSpecCompiler.DeckPlan;
+import io.pptagent.tools.spec.DeckSpecCompiler.ElementPlan;
+import io.pptagent.tools.spec.DeckSpecCompiler.ImageSource;
+import io.pptagent.tools.spec.DeckSpecCompiler.SlidePlan;
+import io.pptagent.tools.svg.SvgTools;
+import io.pptagent.tools.svg.SvgTools.SvgParams;
+import io.pptagent.tools.table.TableTools;
+import io.pptagent.tools.table.TableTools.TableParams;
+import io.pptagent.tools.template.TemplateTools;
+import io.pptagent.tools.text.TextTools;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 演示文稿描述执行器
+ * 在进程内按{@link DeckSpecCompiler}编译出的计划依次创建幻灯片和元素，
+ * 一次工具调用完成整份演示文稿的构建，单个元素失败不会中断其余元素。
+ */
+public final class DeckSpecExecutor {
+    private static final Logger LOGGER = Logger.getLogger(DeckSpecExecutor.class.getName());
+
+    private static final int DEFAULT_PARALLELISM = readParallelism();
+
+    private DeckSpecExecutor() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 表示构建结果的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class BuildResult {
+        private final boolean success;
+        private final int slideCount;
+        private final int elementCount;
+        private final int failedCount;
+        private final List<String> errors;
+        private final long elapsedMs;
+        private final String savedPath;
+        private final String message;
+    }
+
+    /**
+     * 编译并执行演示文稿描述
+     *
+     * @param spec 演示文稿描述
+     * @return 构建结果
+     */
+    public static BuildResult build(Map<String, Object> spec) {
+        long start = System.currentTimeMillis();
+        CompileResult compiled = DeckSpecCompiler.compile(spec);
+        if (compiled.plan() == null) {
+            return new BuildResult(false, 0, 0, compiled.errors().size(), compiled.errors(),
+                System.currentTimeMillis() - start, null, "描述校验失败，未做任何修改");
+        }
+
+        try {
+            return execute(compiled.plan(), start);
+        } catch (CancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "构建演示文稿失败", e);
+            return new BuildResult(false, 0, 0, 1, List.of(e.getMessage()),
+                System.currentTimeMillis() - start, null, "构建演示文稿失败: " + e.getMessage());
+        }
+    }
+
+    private static BuildResult execute(DeckPlan plan, long start) throws Exception {
+        List<String> errors = new ArrayList<>();
+
+        int initialSlides = 0;
+        if (plan.newPresentation()) {
+            if (!BaseTools.createPresentation()) {
+                throw new IllegalStateException("创建演示文稿失败");
+            }
+            // 新演示文稿自带的空白幻灯片在构建完成后移除
+            initialSlides = PresentationManager.getInstance().getPresentation().getSlides().size();
+        }
+        Presentation pres = PresentationManager.getInstance().getPresentation();
+        if (pres == null) {
+            throw new IllegalStateException("没有活动的演示文稿");
+        }
+
+        int slideCount = 0;
+        int elementCount = 0;
+        int workers = resolveParallelism(plan);
+        if (workers > 1) {
+            ParallelSlideBuilder.Outcome outcome = ParallelSlideBuilder.build(pres, plan, workers, errors);
+            slideCount = outcome.slideCount();
+            elementCount = outcome.elementCount();
+        } else {
+            // 每个不同的图片来源只加载一次
+            List<IPPImage> images = new ArrayList<>(plan.images().size());
+            for (ImageSource source : plan.images()) {
+                try {
+                    images.add(PictureTools.addImage(pres, source.imagePath(), source.base64()));
+                } catch (Exception e) {
+                    images.add(null);
+                    errors.add(imageError(source, e));
+                }
+            }
+
+            // 每张幻灯片之间检查取消并汇报进度
+            CancellationToken token = CancellationToken.current();
+            for (SlidePlan slidePlan : plan.slides()) {
+                token.checkpoint();
+                token.reportProgress(slideCount, plan.slides().size(), "构建幻灯片");
+                int elements = buildSlide(slidePlan, images::get, errors);
+                if (elements >= 0) {
+                    slideCount++;
+                    elementCount += elements;
+                }
+            }
+        }
+
+        for (int i = 0; i < initialSlides && pres.getSlides().size() > slideCount; i++) {
+            pres.getSlides().removeAt(0);
+        }
+
+        String savedPath = null;
+        if (plan.savePath() != null && !plan.savePath().isEmpty()) {
+            SaveResult saveResult = BaseTools.savePresentationEnhanced(plan.savePath(),
+                plan.format() != null ? plan.format() : "PPTX");
+            if (saveResult.isSuccess()) {
+                savedPath = saveResult.getPath();
+            } else {
+                errors.add("savePath: " + saveResult.getMessage());
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        LOGGER.info("演示文稿构建完成: " + slideCount + "张幻灯片, " + elementCount + "个元素, 耗时" + elapsed + "ms");
+        return new BuildResult(errors.isEmpty(), slideCount, elementCount, errors.size(), errors, elapsed, savedPath,
+            errors.isEmpty() ? "演示文稿构建成功" : "演示文稿构建完成，" + errors.size() + "处失败");
+    }
+
+    /**
+     * 在当前线程绑定的演示文稿中构建一张幻灯片及其元素
+     *
+     * @param slidePlan 幻灯片执行计划
+     * @param images 按图片序号获取已加载的图片，加载失败时为null
+     * @param errors 错误信息，失败的幻灯片和元素追加到其中
+     * @return 成功添加的元素数量，幻灯片创建失败时返回-1
+     */
+    static int buildSlide(SlidePlan slidePlan, IntFunction<IPPImage> images, List<String> errors) {
+        AddSlideResult slideResult = addSlide(slidePlan);
+        if (!slideResult.isSuccess()) {
+            errors.add(slidePlan.path() + ": " + slideResult.getMessage());
+            return -1;
+        }
+        int slideIndex = slideResult.getSlideIndex();
+
+        if (slidePlan.background() != null && !BackgroundTools.setBackgroundColor(slidePlan.background(), slideIndex)) {
+            errors.add(slidePlan.path() + ".background: 设置背景失败");
+        }
+
+        int elementCount = 0;
+        for (ElementPlan element : slidePlan.elements()) {
+            String error = addElement(element, slideIndex, images);
+            if (error == null) {
+                elementCount++;
+            } else {
+                errors.add(element.path() + ": " + error);
+            }
+        }
+        return elementCount;
+    }
+
+    static String imageError(ImageSource source, Exception e) {
+        return "image " + (source.imagePath() != null ? source.imagePath() : "base64") + ": " + e.getMessage();
+    }
+
+    /**
+     * 确定并行构建的工作线程数，返回1时按顺序构建
+     * 描述未指定时使用DECK_BUILD_PARALLELISM（默认1），0表示按CPU核数；
+     * 包含模板幻灯片时按顺序构建，模板演示文稿在各线程间共享，不能并发读取
+     */
+    private static int resolveParallelism(DeckPlan plan) {
+        int parallelism = plan.parallelism() != null ? plan.parallelism() : DEFAULT_PARALLELISM;
+        if (parallelism == 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        parallelism = Math.min(parallelism, plan.slides().size());
+        if (parallelism > 1 && plan.slides().stream().anyMatch(slide -> slide.templatePath() != null)) {
+            LOGGER.info("描述中包含模板幻灯片，按顺序构建");
+            return 1;
+        }
+        return Math.max(1, parallelism);
+    }
+
+    private static int readParallelism() {
+        String value = System.getenv("DECK_BUILD_PARALLELISM");
+        if (value == null || value.trim().isEmpty()) {
+            return 1;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("无效的DECK_BUILD_PARALLELISM: " + value + "，按顺序构建");
+            return 1;
+        }
+    }
+
+    private static AddSlideResult addSlide(SlidePlan slidePlan) {
+        if (slidePlan.templatePath() == null) {
+            return SlideTools.addSlideEnhanced(slidePlan.layout());
+        }
+        if (slidePlan.templateLayout() != null && !slidePlan.templateLayout().isEmpty()) {
+            return TemplateTools.addSlideFromLayout(slidePlan.templatePath(), slidePlan.templateLayout(), slidePlan.values());
+        }
+        int templateSlideIndex = slidePlan.templateSlideIndex() != null ? slidePlan.templateSlideIndex() : 0;
+        return TemplateTools.addSlideFromTemplate(slidePlan.templatePath(), templateSlideIndex, slidePlan.values());
+    }
+
+    /**
+     * 添加单个元素
+     *
+     * @return 错误信息，成功时返回null
+     */
+    @SuppressWarnings("unchecked")
+    private static String addElement(ElementPlan element, int slideIndex, IntFunction<IPPImage> images) {
+        Map<String, Object> props = element.props();
+        try {
+            switch (element.type()) {
+                case TEXT -> {
+                    TextTools.AddTextBoxResult result = TextTools.addTextBox(element.x(), element.y(),
+                        element.width(), element.height(), (String) props.get("backgroundColor"),
+                        (String) props.get("borderColor"), floatProp(props, "borderWidth", 0f), slideIndex);
+                    if (!result.isSuccess()) {
+                        return result.getMessage();
+                    }
+                    return setText(props, result.getShapeIndex(), slideIndex);
+                }
+                case SHAPE -> {
+                    ShapeTools.AddShapeResult result = ShapeTools.addShape((String) props.get("shape"),
+                        new ShapeParams(element.x(), element.y(), element.width(), element.height(),
+                            (String) props.get("fillColor"), (String) props.get("borderColor"),
+                            floatProp(props, "borderWidth", 1f)), slideIndex);
+                    if (!result.isSuccess()) {
+                        return result.getMessage();
+                    }
+                    return setText(props, result.getShapeIndex(), slideIndex);
+                }
+                case LINE -> {
+                    ShapeTools.AddLineResult result = ShapeTools.addLine(new LineParams(element.x(), element.y(),
+                        element.width(), element.height(), (String) props.get("color"),
+                        floatProp(props, "thickness", 1f)), slideIndex);
+                    return result.isSuccess() ? null : result.getMessage();
+                }
+                case CHART -> {
+                    ChartTools.ChartResult result = ChartTools.createChart((ChartTypeEnum) props.get("chartTypeEnum"),
+                        (ChartParams) props.get("chartParams"), (List<String>) props.get("categoryList"),
+                        (List<SeriesData>) props.get("seriesList"), slideIndex);
+                    return result.isSuccess() ? null : result.getMessage();
+                }
+                case TABLE -> {
+                    TableParams params = TableParams.builder()
+                        .x(element.x())
+                        .y(element.y())
+                        .width(element.width())
+                        .height(element.height())
+                        .headerRow(!Boolean.FALSE.equals(props.get("headerRow")))
+                        .headerColor((String) props.get("headerColor"))
+                        .headerTextColor((String) props.get("headerTextColor"))
+                        .zebraColor((String) props.get("zebraColor"))
+                        .fontSize(floatProp(props, "fontSize", 0f))
+                        .build();
+                    TableTools.AddTableResult result = props.get("csvPath") instanceof String csvPath
+                        ? TableTools.addTableFromCsv(csvPath, params, slideIndex)
+                        : TableTools.addTable(toStringRows((List<Object>) props.get("data")), params, slideIndex);
+                    return result.isSuccess() ? null : result.getMessage();
+                }
+                case IMAGE -> {
+                    IPPImage image = images.apply((Integer) props.get("imageIndex"));
+                    if (image == null) {
+                        return "图片加载失败";
+                    }
+                    PictureTools.AddPictureFrameResult result = PictureTools.addPictureFrame(image,
+                        element.x(), element.y(), element.width(), element.height(), slideIndex);
+                    return result.isSuccess() ? null : result.getMessage();
+                }
+                case SVG -> {
+                    SvgTools.AddSvgResult result = SvgTools.addSvgImage(new SvgParams((String) props.get("svgContent"),
+                        element.x(), element.y(), element.width(), element.height()), slideIndex);
+                    return result.success() ? null : result.message();
+                }
+                default -> {
+                    return "不支持的元素类型";
+                }
+            }
+        } catch (CancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "添加元素失败: " + element.path(), e);
+            return e.getMessage();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String setText(Map<String, Object> props, int shapeIndex, int slideIndex) {
+        List<Map<String, Object>> text = (List<Map<String, Object>>) props.get("text");
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        TextTools.SetFormattedTextResult result = TextTools.setFormattedText(shapeIndex, text, slideIndex);
+        return result.isSuccess() ? null : result.getMessage();
+    }
+
+    private static float floatProp(Map<String, Object> props, String key, float defaultValue) {
+        return props.get(key) instanceof Number n ? n.floatValue() : defaultValue;
+    }
+
+    private static List<List<String>> toStringRows(List<Object> rows) {
+        List<List<String>> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            List<String> cells = new ArrayList<>();
+            if (row instanceof List<?> list) {
+                for (Object cell : list) {
+                    cells.add(cell == null ? "" : String.valueOf(cell));
+                }
+            }
+            result.add(cells);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,243 @@
+package io.pptagent.tools.spec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.logging.Logger;
+
+import com.aspose.slides.IMasterSlide;
+import com.aspose.slides.IPPImage;
+import com.aspose.slides.ISlide;
+import com.aspose.slides.Presentation;
+import com.aspose.slides.SaveFormat;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.cancel.CancellationToken;
+import io.pptagent.tools.cancel.CancellationToken.CancelledException;
+import io.pptagent.tools.media.PictureTools;
+import io.pptagent.tools.spec.DeckSpecCompiler.DeckPlan;
+import io.pptagent.tools.spec.DeckSpecCompiler.ImageSource;
+import io.pptagent.tools.spec.DeckSpecCompiler.SlidePlan;
+
+/**
+ * 并行幻灯片构建器
+ * 同一个Presentation不能被并发修改，因此每个工作线程在各自的临时演示文稿中构建幻灯片：
+ * 临时演示文稿由目标演示文稿去掉幻灯片后的副本加载而来，母版、布局和幻灯片尺寸与目标一致。
+ * 幻灯片按连续的小段分给工作线程，先完成的线程继续领取下一段；全部完成后按原顺序克隆到目标演示文稿。
+ */
+final class ParallelSlideBuilder {
+    private static final Logger LOGGER = Logger.getLogger(ParallelSlideBuilder.class.getName());
+
+    // 每个工作线程平均领取的段数，段越小负载越均衡，合并时的开销不变
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private ParallelSlideBuilder() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 构建结果
+     */
+    record Outcome(int slideCount, int elementCount) {}
+
+    /**
+     * 一段幻灯片的构建结果，位于某个临时演示文稿的[from, to)区间
+     */
+    private record ChunkResult(Presentation scratch, int from, int to, List<String> errors, int elementCount) {}
+
+    /**
+     * 并行构建描述中的所有幻灯片并按顺序追加到目标演示文稿
+     *
+     * @param target 目标演示文稿
+     * @param plan 执行计划
+     * @param workers 工作线程数
+     * @param errors 错误信息，按幻灯片顺序追加
+     * @return 构建结果
+     */
+    static Outcome build(Presentation target, DeckPlan plan, int workers, List<String> errors) throws Exception {
+        long start = System.currentTimeMillis();
+        CancellationToken token = CancellationToken.current();
+        byte[] seed = createSeed(target);
+
+        List<SlidePlan> slides = plan.slides();
+        int chunkSize = Math.max(1, (int) Math.ceil((double) slides.size() / (workers * CHUNKS_PER_WORKER)));
+        List<List<SlidePlan>> chunks = new ArrayList<>();
+        for (int i = 0; i < slides.size(); i += chunkSize) {
+            chunks.add(slides.subList(i, Math.min(slides.size(), i + chunkSize)));
+        }
+
+        ChunkResult[] results = new ChunkResult[chunks.size()];
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicInteger built = new AtomicInteger();
+        // 图片加载失败只记录一次，按图片序号排列
+        Map<Integer, String> imageErrors = new ConcurrentSkipListMap<>();
+        List<PresentationManager> scratches = Collections.synchronizedList(new ArrayList<>());
+        // 任一工作线程失败后其余线程在下一张幻灯片前停止
+        AtomicBoolean aborted = new AtomicBoolean();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "deck-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                futures.add(executor.submit(() -> {
+                    Presentation scratch = new Presentation(new ByteArrayInputStream(seed));
+                    PresentationManager manager = PresentationManager.newScratchInstance(scratch);
+                    scratches.add(manager);
+                    IntFunction<IPPImage> images = imageLoader(scratch, plan.images(), imageErrors);
+
+                    // 单项工具通过PresentationManager.getInstance()访问演示文稿，绑定后即作用于临时演示文稿
+                    PresentationManager.bind(manager);
+                    try {
+                        int k;
+                        while (!aborted.get() && (k = nextChunk.getAndIncrement()) < chunks.size()) {
+                            int from = scratch.getSlides().size();
+                            List<String> chunkErrors = new ArrayList<>();
+                            int elementCount = 0;
+                            for (SlidePlan slidePlan : chunks.get(k)) {
+                                if (aborted.get()) {
+                                    return null;
+                                }
+                                token.checkpoint();
+                                int elements = DeckSpecExecutor.buildSlide(slidePlan, images, chunkErrors);
+                                elementCount += Math.max(0, elements);
+                                token.reportProgress(built.incrementAndGet(), slides.size(), "并行构建幻灯片");
+                            }
+                            results[k] = new ChunkResult(scratch, from, scratch.getSlides().size(), chunkErrors,
+                                elementCount);
+                        }
+                    } catch (Exception | Error e) {
+                        aborted.set(true);
+                        throw e;
+                    } finally {
+                        PresentationManager.bind(null);
+                    }
+                    return null;
+                }));
+            }
+            awaitAll(futures);
+            long builtAt = System.currentTimeMillis();
+
+            // 按原顺序克隆到目标演示文稿；添加幻灯片的单项工具始终使用第一个母版，克隆时对应到目标的第一个母版，
+            // 布局按类型匹配，不会为每张幻灯片复制一份母版
+            errors.addAll(imageErrors.values());
+            IMasterSlide master = target.getMasters().get_Item(0);
+            int slideCount = 0;
+            int elementCount = 0;
+            for (ChunkResult result : results) {
+                token.checkpoint();
+                for (int i = result.from(); i < result.to(); i++) {
+                    ISlide slide = result.scratch().getSlides().get_Item(i);
+                    target.getSlides().addClone(slide, master, true);
+                }
+                slideCount += result.to() - result.from();
+                elementCount += result.elementCount();
+                errors.addAll(result.errors());
+            }
+
+            LOGGER.info("并行构建" + slideCount + "张幻灯片: " + workers + "个线程构建" + (builtAt - start)
+                + "ms，合并" + (System.currentTimeMillis() - builtAt) + "ms");
+            return new Outcome(slideCount, elementCount);
+        } finally {
+            aborted.set(true);
+            executor.shutdownNow();
+            // Aspose不响应线程中断，需等正在构建的幻灯片完成后才能释放临时演示文稿
+            awaitTermination(executor);
+            for (PresentationManager scratch : scratches) {
+                scratch.dispose();
+            }
+        }
+    }
+
+    /**
+     * 等待工作线程全部退出，等待期间被中断时继续等待并在返回前恢复中断状态
+     */
+    private static void awaitTermination(ExecutorService executor) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+                LOGGER.fine("等待并行构建的工作线程退出");
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 复制目标演示文稿并移除所有幻灯片，作为各临时演示文稿的模板
+     */
+    private static byte[] createSeed(Presentation target) {
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        target.save(copy, SaveFormat.Pptx);
+        Presentation seed = new Presentation(new ByteArrayInputStream(copy.toByteArray()));
+        try {
+            while (seed.getSlides().size() > 0) {
+                seed.getSlides().removeAt(0);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            seed.save(out, SaveFormat.Pptx);
+            return out.toByteArray();
+        } finally {
+            seed.dispose();
+        }
+    }
+
+    /**
+     * 按需把图片加载到临时演示文稿，每个工作线程只加载自己用到的图片
+     */
+    private static IntFunction<IPPImage> imageLoader(Presentation scratch, List<ImageSource> sources,
+                                                     Map<Integer, String> imageErrors) {
+        IPPImage[] loaded = new IPPImage[sources.size()];
+        boolean[] attempted = new boolean[sources.size()];
+        return index -> {
+            if (!attempted[index]) {
+                attempted[index] = true;
+                ImageSource source = sources.get(index);
+                try {
+                    loaded[index] = PictureTools.addImage(scratch, source.imagePath(), source.base64());
+                } catch (Exception e) {
+                    imageErrors.putIfAbsent(index, DeckSpecExecutor.imageError(source, e));
+                }
+            }
+            return loaded[index];
+        };
+    }
+
+    /**
+     * 等待所有工作线程完成，任一线程失败（包括取消）时取消其余任务并抛出原始异常；
+     * 正在运行的线程在下一张幻灯片前停止，由调用方等待其退出
+     */
+    private static void awaitAll(List<Future<?>> futures) throws Exception {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof CancelledException cancelled) {
+                throw cancelled;
+            }
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+}
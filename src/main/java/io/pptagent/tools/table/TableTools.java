@@ -0,0 +1,305 @@
+package io.pptagent.tools.table;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.aspose.slides.FillType;
+import com.aspose.slides.ICell;
+import com.aspose.slides.IParagraph;
+import com.aspose.slides.IPortion;
+import com.aspose.slides.IPortionFormat;
+import com.aspose.slides.ISlide;
+import com.aspose.slides.ITable;
+import com.aspose.slides.NullableBool;
+import com.aspose.slides.Presentation;
+import io.pptagent.App;
+import io.pptagent.tools.PresentationManager;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 表格相关工具函数
+ */
+public final class TableTools {
+    private static final Logger LOGGER = Logger.getLogger(TableTools.class.getName());
+
+    private TableTools() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 表格参数构建器类
+     */
+    @Getter
+    @Builder
+    public static class TableParams {
+        private final float x;                 // X坐标
+        private final float y;                 // Y坐标
+        private final float width;             // 总宽度
+        private final float height;            // 总高度
+        private final boolean headerRow;       // 第一行是否为表头
+        private final String headerColor;      // 表头背景颜色
+        private final String headerTextColor;  // 表头文字颜色
+        private final String zebraColor;       // 隔行背景颜色，为空时不使用斑马纹
+        private final float fontSize;          // 字体大小，0表示使用默认值
+    }
+
+    /**
+     * 表示添加表格结果的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class AddTableResult {
+        private final boolean success;
+        private final int shapeIndex;
+        private final int rowCount;
+        private final int columnCount;
+        private final String message;
+    }
+
+    /**
+     * 获取完整的文件路径
+     *
+     * @param filePath 文件路径
+     * @return 完整的文件路径
+     */
+    private static String getFullPath(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件路径不能为空");
+        }
+
+        File file = new File(filePath);
+        if (file.isAbsolute()) {
+            return filePath; // 如果是绝对路径，直接返回
+        }
+
+        // 使用工作目录
+        String workspace = App.getWorkspace();
+        return new File(workspace, filePath).getAbsolutePath();
+    }
+
+    /**
+     * 从CSV文件添加表格
+     *
+     * @param csvPath CSV文件路径（相对路径基于工作目录）
+     * @param params 表格参数
+     * @param slideIndex 幻灯片索引
+     * @return 添加表格结果
+     */
+    public static AddTableResult addTableFromCsv(String csvPath, TableParams params, int slideIndex) {
+        try {
+            File csvFile = new File(getFullPath(csvPath));
+            if (!csvFile.isFile()) {
+                return new AddTableResult(false, -1, 0, 0, "CSV文件不存在: " + csvFile.getAbsolutePath());
+            }
+            return addTable(readCsv(csvFile), params, slideIndex);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "读取CSV文件失败", e);
+            return new AddTableResult(false, -1, 0, 0, "读取CSV文件失败: " + e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "添加表格失败", e);
+            return new AddTableResult(false, -1, 0, 0, "添加表格失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 添加表格并一次性填充所有单元格、表头和斑马纹样式
+     *
+     * @param rows 行数据，每行为一个字符串列表，列数以最长的一行为准
+     * @param params 表格参数
+     * @param slideIndex 幻灯片索引
+     * @return 添加表格结果
+     */
+    public static AddTableResult addTable(List<List<String>> rows, TableParams params, int slideIndex) {
+        try {
+            Presentation pres = PresentationManager.getInstance().getPresentation();
+            if (pres == null) {
+                return new AddTableResult(false, -1, 0, 0, "没有活动的演示文稿");
+            }
+
+            if (rows == null || rows.isEmpty()) {
+                return new AddTableResult(false, -1, 0, 0, "表格数据不能为空");
+            }
+
+            int rowCount = rows.size();
+            int columnCount = 0;
+            for (List<String> row : rows) {
+                if (row != null) {
+                    columnCount = Math.max(columnCount, row.size());
+                }
+            }
+            if (columnCount == 0) {
+                return new AddTableResult(false, -1, 0, 0, "表格数据不能为空");
+            }
+
+            ISlide slide = pres.getSlides().get_Item(slideIndex);
+
+            // 均分宽度和高度
+            double[] columnWidths = new double[columnCount];
+            Arrays.fill(columnWidths, params.getWidth() / columnCount);
+            double[] rowHeights = new double[rowCount];
+            Arrays.fill(rowHeights, params.getHeight() / rowCount);
+
+            ITable table = slide.getShapes().addTable(params.getX(), params.getY(), columnWidths, rowHeights);
+
+            // 颜色只解析一次，逐单元格复用
+            Color headerColor = decodeColor(params.getHeaderColor());
+            Color headerTextColor = decodeColor(params.getHeaderTextColor());
+            Color zebraColor = decodeColor(params.getZebraColor());
+
+            try {
+                for (int r = 0; r < rowCount; r++) {
+                    List<String> row = rows.get(r);
+                    boolean isHeader = params.isHeaderRow() && r == 0;
+                    // 斑马纹从表头之后的第二行开始
+                    int bodyRow = params.isHeaderRow() ? r - 1 : r;
+                    Color rowFill = isHeader ? headerColor : (bodyRow % 2 == 1 ? zebraColor : null);
+
+                    for (int c = 0; c < columnCount; c++) {
+                        ICell cell = table.get_Item(c, r);
+                        String text = row != null && c < row.size() && row.get(c) != null ? row.get(c) : "";
+                        cell.getTextFrame().setText(text);
+
+                        if (rowFill != null) {
+                            cell.getCellFormat().getFillFormat().setFillType(FillType.Solid);
+                            cell.getCellFormat().getFillFormat().getSolidFillColor().setColor(rowFill);
+                        }
+
+                        if (params.getFontSize() > 0 || isHeader) {
+                            formatCellText(cell, params.getFontSize(), isHeader, headerTextColor);
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                // 填充失败时移除填充了一半的表格，不在幻灯片上留下无法通过结果定位的形状
+                slide.getShapes().remove(table);
+                throw e;
+            }
+
+            int shapeIndex = slide.getShapes().indexOf(table);
+            return new AddTableResult(true, shapeIndex, rowCount, columnCount, "表格添加成功");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "添加表格失败", e);
+            return new AddTableResult(false, -1, 0, 0, "添加表格失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 设置单元格所有文本的字号和表头样式
+     * 空单元格的段落没有文本部分，设置段落结束格式，之后输入的文本沿用该格式
+     */
+    private static void formatCellText(ICell cell, float fontSize, boolean isHeader, Color headerTextColor) {
+        for (IParagraph paragraph : cell.getTextFrame().getParagraphs()) {
+            if (paragraph.getPortions().getCount() == 0) {
+                applyCellFormat(paragraph.getEndParagraphPortionFormat(), fontSize, isHeader, headerTextColor);
+                continue;
+            }
+            for (IPortion portion : paragraph.getPortions()) {
+                applyCellFormat(portion.getPortionFormat(), fontSize, isHeader, headerTextColor);
+            }
+        }
+    }
+
+    private static void applyCellFormat(IPortionFormat portionFormat, float fontSize, boolean isHeader,
+                                        Color headerTextColor) {
+        if (fontSize > 0) {
+            portionFormat.setFontHeight(fontSize);
+        }
+        if (isHeader) {
+            portionFormat.setFontBold(NullableBool.True);
+            if (headerTextColor != null) {
+                portionFormat.getFillFormat().setFillType(FillType.Solid);
+                portionFormat.getFillFormat().getSolidFillColor().setColor(headerTextColor);
+            }
+        }
+    }
+
+    /**
+     * 解析十六进制颜色，为空或无效时返回null
+     */
+    private static Color decodeColor(String color) {
+        if (color == null || color.isEmpty()) {
+            return null;
+        }
+        try {
+            return Color.decode(color);
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "无效的颜色格式: " + color, e);
+            return null;
+        }
+    }
+
+    /**
+     * 逐行读取CSV文件，支持双引号包裹的字段、字段内的逗号、转义引号和换行
+     */
+    public static List<List<String>> readCsv(File csvFile) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(csvFile.toPath(), StandardCharsets.UTF_8)) {
+            List<String> row = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+            String line;
+            boolean firstLine = true;
+
+            while ((line = reader.readLine()) != null) {
+                if (firstLine && line.startsWith("\uFEFF")) {
+                    line = line.substring(1); // 去掉UTF-8 BOM
+                }
+                firstLine = false;
+
+                for (int i = 0; i < line.length(); i++) {
+                    char ch = line.charAt(i);
+                    if (inQuotes) {
+                        if (ch == '"') {
+                            if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                                field.append('"');
+                                i++;
+                            } else {
+                                inQuotes = false;
+                            }
+                        } else {
+                            field.append(ch);
+                        }
+                    } else if (ch == '"') {
+                        inQuotes = true;
+                    } else if (ch == ',') {
+                        row.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(ch);
+                    }
+                }
+
+                if (inQuotes) {
+                    // 引号内的换行属于字段内容
+                    field.append('\n');
+                    continue;
+                }
+
+                row.add(field.toString());
+                field.setLength(0);
+                if (!(row.size() == 1 && row.get(0).isEmpty())) {
+                    rows.add(row);
+                }
+                row = new ArrayList<>();
+            }
+
+            if (inQuotes || field.length() > 0 || !row.isEmpty()) {
+                row.add(field.toString());
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
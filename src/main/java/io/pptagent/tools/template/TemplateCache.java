@@ -0,0 +1,204 @@
+package io.pptagent.tools.template;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.aspose.slides.Presentation;
+
+/**
+ * 模板缓存 - 进程级缓存已加载的源演示文稿（模板和幻灯片库）
+ * 同一文件只解析一次，文件修改时间变化后自动重新加载。缓存按最近使用顺序保留最多
+ * TEMPLATE_CACHE_SIZE个（默认8）演示文稿，超出时释放最久未使用的一个。
+ * 源演示文稿只作为克隆源使用，调用方访问时需对返回的{@link CachedTemplate}加锁。
+ * {@link #get}返回的模板已被固定，调用方用完后需关闭（try-with-resources）；被移出缓存的模板
+ * 等最后一个使用者关闭后才释放，已经取得的模板不会在使用中失效。
+ */
+public final class TemplateCache {
+    private static final Logger LOGGER = Logger.getLogger(TemplateCache.class.getName());
+
+    private static final int DEFAULT_MAX_SIZE = 8;
+    private static final int MAX_SIZE = readMaxSize();
+
+    // 按访问顺序排列，访问时需持有CACHE的锁
+    private static final Map<String, CachedTemplate> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    private TemplateCache() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 已缓存的模板，关闭时解除固定
+     */
+    public static final class CachedTemplate implements AutoCloseable {
+        private final String path;
+        private final long lastModified;
+        private final Presentation presentation;
+        // 以下字段需持有CACHE的锁访问
+        private int pins;
+        private boolean evicted;
+
+        CachedTemplate(String path, long lastModified, Presentation presentation) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.presentation = presentation;
+        }
+
+        public String getPath() { return path; }
+        public long getLastModified() { return lastModified; }
+
+        /**
+         * 获取源演示文稿，需持有本对象的锁
+         */
+        public Presentation getPresentation() {
+            return presentation;
+        }
+
+        /**
+         * 解除固定，已被移出缓存且没有其他使用者时释放
+         */
+        @Override
+        public void close() {
+            synchronized (CACHE) {
+                pins--;
+                if (!evicted || pins > 0) {
+                    return;
+                }
+            }
+            dispose();
+        }
+
+        private void dispose() {
+            try {
+                presentation.dispose();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "释放模板失败: " + path, e);
+            }
+        }
+    }
+
+    /**
+     * 获取并固定模板，未缓存或文件已修改时加载
+     * 加载在缓存锁之外进行，加载大文件时不阻塞其他模板的读取
+     *
+     * @param fullPath 模板文件的绝对路径
+     * @return 已固定的模板，用完后需关闭
+     * @throws IOException 文件不存在时抛出
+     */
+    public static CachedTemplate get(String fullPath) throws IOException {
+        File file = new File(fullPath);
+        if (!file.isFile()) {
+            throw new IOException("模板文件不存在: " + fullPath);
+        }
+        String key = file.getCanonicalPath();
+        long lastModified = file.lastModified();
+
+        synchronized (CACHE) {
+            CachedTemplate existing = CACHE.get(key);
+            if (existing != null && existing.getLastModified() == lastModified) {
+                existing.pins++;
+                return existing;
+            }
+        }
+
+        LOGGER.info("加载模板: " + key);
+        CachedTemplate loaded = new CachedTemplate(key, lastModified, new Presentation(key));
+
+        List<CachedTemplate> released = new ArrayList<>();
+        CachedTemplate result;
+        synchronized (CACHE) {
+            CachedTemplate existing = CACHE.get(key);
+            if (existing != null && existing.getLastModified() == lastModified) {
+                // 其他调用已加载同一版本，本次加载的副本从未被其他调用看到
+                released.add(loaded);
+                result = existing;
+            } else {
+                if (existing != null) {
+                    evict(existing, released);
+                }
+                CACHE.put(key, loaded);
+                Iterator<CachedTemplate> it = CACHE.values().iterator();
+                while (CACHE.size() > MAX_SIZE && it.hasNext()) {
+                    CachedTemplate eldest = it.next();
+                    if (eldest == loaded) {
+                        continue;
+                    }
+                    it.remove();
+                    evict(eldest, released);
+                    LOGGER.info("模板移出缓存: " + eldest.getPath());
+                }
+                result = loaded;
+            }
+            result.pins++;
+        }
+        // 在缓存锁之外释放没有使用者的模板，正在使用的模板由最后一个使用者关闭时释放
+        released.forEach(CachedTemplate::dispose);
+        return result;
+    }
+
+    /**
+     * 标记模板已移出缓存，没有使用者时加入待释放列表，需持有CACHE的锁
+     */
+    private static void evict(CachedTemplate template, List<CachedTemplate> released) {
+        template.evicted = true;
+        if (template.pins == 0) {
+            released.add(template);
+        }
+    }
+
+    /**
+     * 是否已缓存指定模板
+     */
+    public static boolean contains(String fullPath) {
+        try {
+            String key = new File(fullPath).getCanonicalPath();
+            synchronized (CACHE) {
+                return CACHE.containsKey(key);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取缓存的模板数量
+     */
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    /**
+     * 释放所有缓存的模板
+     */
+    public static void clear() {
+        List<CachedTemplate> released = new ArrayList<>();
+        synchronized (CACHE) {
+            for (CachedTemplate template : CACHE.values()) {
+                evict(template, released);
+            }
+            CACHE.clear();
+        }
+        released.forEach(CachedTemplate::dispose);
+    }
+
+    private static int readMaxSize() {
+        String value = System.getenv("TEMPLATE_CACHE_SIZE");
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_MAX_SIZE;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("无效的TEMPLATE_CACHE_SIZE: " + value + "，使用默认值" + DEFAULT_MAX_SIZE);
+            return DEFAULT_MAX_SIZE;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package io.pptagent.tools.template;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.aspose.slides.IAutoShape;
+import com.aspose.slides.ILayoutSlide;
+import com.aspose.slides.IMasterSlide;
+import com.aspose.slides.IParagraph;
+import com.aspose.slides.IPortion;
+import com.aspose.slides.IShape;
+import com.aspose.slides.ISlide;
+import com.aspose.slides.ITextFrame;
+import com.aspose.slides.PlaceholderType;
+import com.aspose.slides.Presentation;
+import io.pptagent.App;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.slides.SlideTools.AddSlideResult;
+import io.pptagent.tools.template.TemplateCache.CachedTemplate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 模板相关工具函数
+ * 模板文件通过{@link TemplateCache}只加载一次，新幻灯片通过克隆模板幻灯片或模板版式生成，
+ * 再按形状名称、占位符类型或文本中的{{key}}标记填充内容
+ */
+public final class TemplateTools {
+    private static final Logger LOGGER = Logger.getLogger(TemplateTools.class.getName());
+
+    // 克隆到目标演示文稿的模板母版带有该标签，值为来源模板及母版序号，避免同一母版被重复克隆；
+    // 标签随演示文稿保存，休眠恢复或重新打开后仍能找到已克隆的母版
+    private static final String MASTER_TAG = "pptagent.templateMaster";
+
+    private TemplateTools() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 表示模板信息的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class TemplateInfo {
+        private final boolean success;
+        private final String path;
+        private final int slideCount;
+        private final Map<String, List<String>> layouts;   // 母版名称 -> 版式名称列表
+        private final String message;
+    }
+
+    /**
+     * 表示导入幻灯片结果的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ImportSlidesResult {
+        private final boolean success;
+        private final List<Integer> slideIndexes;   // 导入后在当前演示文稿中的索引，与源索引顺序一致
+        private final String message;
+    }
+
+    /**
+     * 获取完整的文件路径
+     *
+     * @param filePath 文件路径
+     * @return 完整的文件路径
+     */
+    private static String getFullPath(String filePath) {
+        if (filePath == null || filePath.trim().isEmpty()) {
+            throw new IllegalArgumentException("文件路径不能为空");
+        }
+
+        File file = new File(filePath);
+        if (file.isAbsolute()) {
+            return filePath; // 如果是绝对路径，直接返回
+        }
+
+        // 使用工作目录
+        String workspace = App.getWorkspace();
+        return new File(workspace, filePath).getAbsolutePath();
+    }
+
+    /**
+     * 加载模板并返回其母版和版式信息
+     *
+     * @param templatePath 模板文件路径
+     * @return 模板信息
+     */
+    public static TemplateInfo loadTemplate(String templatePath) {
+        try (CachedTemplate template = TemplateCache.get(getFullPath(templatePath))) {
+            synchronized (template) {
+                Presentation source = template.getPresentation();
+                Map<String, List<String>> layouts = new LinkedHashMap<>();
+                for (int m = 0; m < source.getMasters().size(); m++) {
+                    IMasterSlide master = source.getMasters().get_Item(m);
+                    List<String> layoutNames = new ArrayList<>();
+                    for (int l = 0; l < master.getLayoutSlides().size(); l++) {
+                        layoutNames.add(master.getLayoutSlides().get_Item(l).getName());
+                    }
+                    layouts.put(masterKey(master, m), layoutNames);
+                }
+                return new TemplateInfo(true, template.getPath(), source.getSlides().size(), layouts, "模板加载成功");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "加载模板失败", e);
+            return new TemplateInfo(false, templatePath, 0, Map.of(), "加载模板失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 克隆模板中的幻灯片到当前演示文稿末尾并填充内容
+     *
+     * @param templatePath 模板文件路径
+     * @param templateSlideIndex 模板中的幻灯片索引
+     * @param values 填充内容，键为形状名称、占位符类型(TITLE/SUBTITLE/BODY)或{{key}}标记名
+     * @return 添加幻灯片结果
+     */
+    public static AddSlideResult addSlideFromTemplate(String templatePath, int templateSlideIndex,
+                                                      Map<String, String> values) {
+        try {
+            Presentation pres = PresentationManager.getInstance().getPresentation();
+            if (pres == null) {
+                return new AddSlideResult(false, -1, "没有活动的演示文稿");
+            }
+
+            ISlide slide;
+            try (CachedTemplate template = TemplateCache.get(getFullPath(templatePath))) {
+                synchronized (template) {
+                    Presentation source = template.getPresentation();
+                    if (templateSlideIndex < 0 || templateSlideIndex >= source.getSlides().size()) {
+                        return new AddSlideResult(false, -1, "无效的模板幻灯片索引: " + templateSlideIndex);
+                    }
+                    // 克隆时会一并带入所需的母版和版式
+                    slide = pres.getSlides().addClone(source.getSlides().get_Item(templateSlideIndex));
+                }
+            }
+
+            int filled = fillPlaceholders(slide, values);
+            return new AddSlideResult(true, slide.getSlideNumber() - 1, "模板幻灯片克隆成功，填充" + filled + "处内容");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "克隆模板幻灯片失败", e);
+            return new AddSlideResult(false, -1, "克隆模板幻灯片失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 从其他演示文稿（如幻灯片库）导入幻灯片到当前演示文稿末尾
+     * 源演示文稿通过{@link TemplateCache}缓存，反复从同一文件导入时不重新加载
+     *
+     * @param sourcePath 源演示文稿路径
+     * @param sourceIndexes 要导入的幻灯片索引，按此顺序追加；为空时导入全部幻灯片
+     * @return 导入幻灯片结果
+     */
+    public static ImportSlidesResult importSlides(String sourcePath, List<Integer> sourceIndexes) {
+        try {
+            Presentation pres = PresentationManager.getInstance().getPresentation();
+            if (pres == null) {
+                return new ImportSlidesResult(false, List.of(), "没有活动的演示文稿");
+            }
+
+            List<Integer> slideIndexes = new ArrayList<>();
+            try (CachedTemplate source = TemplateCache.get(getFullPath(sourcePath))) {
+                synchronized (source) {
+                    Presentation sourcePres = source.getPresentation();
+                    List<Integer> indexes = sourceIndexes;
+                    if (indexes == null || indexes.isEmpty()) {
+                        indexes = new ArrayList<>();
+                        for (int i = 0; i < sourcePres.getSlides().size(); i++) {
+                            indexes.add(i);
+                        }
+                    }
+                    // 先校验全部索引，避免只导入一部分
+                    for (int index : indexes) {
+                        if (index < 0 || index >= sourcePres.getSlides().size()) {
+                            return new ImportSlidesResult(false, List.of(), "无效的源幻灯片索引: " + index
+                                + "，源演示文稿共" + sourcePres.getSlides().size() + "张幻灯片");
+                        }
+                    }
+                    // 克隆时会一并带入所需的母版和版式
+                    for (int index : indexes) {
+                        ISlide slide = pres.getSlides().addClone(sourcePres.getSlides().get_Item(index));
+                        slideIndexes.add(slide.getSlideNumber() - 1);
+                    }
+                }
+            }
+
+            return new ImportSlidesResult(true, slideIndexes, "成功导入" + slideIndexes.size() + "张幻灯片");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "导入幻灯片失败", e);
+            return new ImportSlidesResult(false, List.of(), "导入幻灯片失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 使用模板中指定名称的版式添加幻灯片并填充占位符
+     *
+     * @param templatePath 模板文件路径
+     * @param layoutName 版式名称
+     * @param values 填充内容，键为形状名称、占位符类型(TITLE/SUBTITLE/BODY)或{{key}}标记名
+     * @return 添加幻灯片结果
+     */
+    public static AddSlideResult addSlideFromLayout(String templatePath, String layoutName,
+                                                    Map<String, String> values) {
+        try {
+            Presentation pres = PresentationManager.getInstance().getPresentation();
+            if (pres == null) {
+                return new AddSlideResult(false, -1, "没有活动的演示文稿");
+            }
+
+            ILayoutSlide layout;
+            try (CachedTemplate template = TemplateCache.get(getFullPath(templatePath))) {
+                layout = resolveLayout(pres, template, layoutName);
+            }
+            if (layout == null) {
+                return new AddSlideResult(false, -1, "模板中不存在版式: " + layoutName);
+            }
+
+            ISlide slide = pres.getSlides().addEmptySlide(layout);
+            int filled = fillPlaceholders(slide, values);
+            return new AddSlideResult(true, slide.getSlideNumber() - 1, "版式幻灯片添加成功，填充" + filled + "处内容");
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "添加版式幻灯片失败", e);
+            return new AddSlideResult(false, -1, "添加版式幻灯片失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 在目标演示文稿中查找模板版式，所属母版第一次使用时克隆进来并缓存
+     */
+    private static ILayoutSlide resolveLayout(Presentation pres, CachedTemplate template, String layoutName) {
+        synchronized (template) {
+            Presentation source = template.getPresentation();
+            for (int m = 0; m < source.getMasters().size(); m++) {
+                IMasterSlide sourceMaster = source.getMasters().get_Item(m);
+                if (findLayout(sourceMaster, layoutName) == null) {
+                    continue;
+                }
+
+                String key = template.getPath() + "#" + m + "@" + template.getLastModified();
+                IMasterSlide targetMaster = findClonedMaster(pres, key);
+                if (targetMaster == null) {
+                    targetMaster = pres.getMasters().addClone(sourceMaster);
+                    targetMaster.getCustomData().getTags().add(MASTER_TAG, key);
+                }
+                return findLayout(targetMaster, layoutName);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 在目标演示文稿中查找已从指定模板母版克隆的母版
+     */
+    private static IMasterSlide findClonedMaster(Presentation pres, String key) {
+        for (int m = 0; m < pres.getMasters().size(); m++) {
+            IMasterSlide master = pres.getMasters().get_Item(m);
+            if (key.equals(master.getCustomData().getTags().get_Item(MASTER_TAG))) {
+                return master;
+            }
+        }
+        return null;
+    }
+
+    private static ILayoutSlide findLayout(IMasterSlide master, String layoutName) {
+        for (int l = 0; l < master.getLayoutSlides().size(); l++) {
+            ILayoutSlide layout = master.getLayoutSlides().get_Item(l);
+            if (layout.getName() != null && layout.getName().equalsIgnoreCase(layoutName)) {
+                return layout;
+            }
+        }
+        return null;
+    }
+
+    private static String masterKey(IMasterSlide master, int index) {
+        String name = master.getName();
+        return name == null || name.isEmpty() ? "Master" + index : name;
+    }
+
+    /**
+     * 填充幻灯片中的占位符和{{key}}标记
+     *
+     * @return 填充的位置数
+     */
+    public static int fillPlaceholders(ISlide slide, Map<String, String> values) {
+        if (values == null || values.isEmpty()) {
+            return 0;
+        }
+
+        int filled = 0;
+        for (int i = 0; i < slide.getShapes().size(); i++) {
+            IShape shape = slide.getShapes().get_Item(i);
+            if (!(shape instanceof IAutoShape autoShape) || autoShape.getTextFrame() == null) {
+                continue;
+            }
+            ITextFrame textFrame = autoShape.getTextFrame();
+
+            // 优先按形状名称，其次按占位符类型整体替换
+            String value = shape.getName() != null ? values.get(shape.getName()) : null;
+            if (value == null && shape.getPlaceholder() != null) {
+                String key = placeholderKey(shape.getPlaceholder().getType());
+                value = key != null ? values.get(key) : null;
+            }
+            if (value != null) {
+                textFrame.setText(value);
+                filled++;
+                continue;
+            }
+
+            // 替换文本中的{{key}}标记，保留原有格式
+            for (int p = 0; p < textFrame.getParagraphs().getCount(); p++) {
+                IParagraph paragraph = textFrame.getParagraphs().get_Item(p);
+                for (int r = 0; r < paragraph.getPortions().getCount(); r++) {
+                    IPortion portion = paragraph.getPortions().get_Item(r);
+                    String text = portion.getText();
+                    if (text == null || !text.contains("{{")) {
+                        continue;
+                    }
+                    String replaced = text;
+                    for (Map.Entry<String, String> entry : values.entrySet()) {
+                        replaced = replaced.replace("{{" + entry.getKey() + "}}", entry.getValue());
+                    }
+                    if (!replaced.equals(text)) {
+                        portion.setText(replaced);
+                        filled++;
+                    }
+                }
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * 将占位符类型转换为填充键
+     */
+    private static String placeholderKey(byte placeholderType) {
+        if (placeholderType == PlaceholderType.Title || placeholderType == PlaceholderType.CenteredTitle) {
+            return "TITLE";
+        } else if (placeholderType == PlaceholderType.Subtitle) {
+            return "SUBTITLE";
+        } else if (placeholderType == PlaceholderType.Body) {
+            return "BODY";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,210 @@
+package io.pptagent.tools.warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.aspose.slides.Presentation;
+import com.aspose.slides.SaveFormat;
+import io.pptagent.tools.PresentationManager;
+import io.pptagent.tools.background.BackgroundTools;
+import io.pptagent.tools.chart.ChartTools;
+import io.pptagent.tools.chart.ChartTools.ChartParams;
+import io.pptagent.tools.chart.ChartTools.ChartTypeEnum;
+import io.pptagent.tools.chart.ChartTools.SeriesData;
+import io.pptagent.tools.shape.ShapeTools;
+import io.pptagent.tools.slides.SlideTools;
+import io.pptagent.tools.svg.SvgTools;
+import io.pptagent.tools.table.TableTools;
+import io.pptagent.tools.table.TableTools.TableParams;
+import io.pptagent.tools.text.TextTools;
+import io.pptagent.tools.text.TextTools.AddTextBoxResult;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 预热工具函数
+ * 服务器启动后在低优先级后台线程中，对一个临时演示文稿执行与演示模式类似的合成负载
+ * （文本、形状、SVG、图表、表格、PPTX/PDF保存），提前加载Aspose类和字体并触发JIT编译，
+ * 使首次真实调用接近稳定状态的耗时。预热使用独立的演示文稿，不阻塞也不影响工具调用。
+ */
+public final class WarmupTools {
+    private static final Logger LOGGER = Logger.getLogger(WarmupTools.class.getName());
+
+    // 合成负载的重复次数，第一轮加载类，之后的轮次促使热点方法被编译
+    private static final int ROUNDS = 3;
+
+    private static volatile WarmupState state = WarmupState.NOT_STARTED;
+    private static volatile long startTime;
+    private static volatile long endTime;
+    private static volatile String error;
+    private static final Map<String, Long> FIRST_ROUND_MS = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static final Map<String, Long> LAST_ROUND_MS = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static final Map<String, FirstCall> FIRST_CALLS = new ConcurrentHashMap<>();
+
+    private WarmupTools() {
+        // 私有构造函数防止实例化
+    }
+
+    /**
+     * 预热状态
+     */
+    public enum WarmupState {
+        NOT_STARTED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * 工具的首次调用耗时
+     */
+    public record FirstCall(long latencyMs, WarmupState warmupState) {}
+
+    /**
+     * 表示预热状态的类
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class WarmupStatus {
+        private final WarmupState state;
+        private final long elapsedMs;
+        private final Map<String, Long> firstRoundMs;   // 各步骤第一轮（冷启动）耗时
+        private final Map<String, Long> lastRoundMs;    // 各步骤最后一轮（预热后）耗时
+        private final Map<String, FirstCall> firstCalls; // 工具首次真实调用耗时及当时的预热状态
+        private final String message;
+    }
+
+    /**
+     * 在后台启动预热，重复调用只会启动一次
+     */
+    public static synchronized void start() {
+        if (state != WarmupState.NOT_STARTED) {
+            return;
+        }
+        state = WarmupState.RUNNING;
+        startTime = System.currentTimeMillis();
+
+        Thread thread = new Thread(WarmupTools::run, "warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * 获取预热状态
+     */
+    public static WarmupStatus getStatus() {
+        long end = endTime > 0 ? endTime : System.currentTimeMillis();
+        long elapsed = startTime > 0 ? end - startTime : 0;
+        String message = switch (state) {
+            case NOT_STARTED -> "未启用预热";
+            case RUNNING -> "预热进行中";
+            case COMPLETED -> "预热完成";
+            case FAILED -> "预热失败: " + error;
+        };
+        synchronized (FIRST_ROUND_MS) {
+            synchronized (LAST_ROUND_MS) {
+                return new WarmupStatus(state, elapsed, new LinkedHashMap<>(FIRST_ROUND_MS),
+                    new LinkedHashMap<>(LAST_ROUND_MS), new LinkedHashMap<>(FIRST_CALLS), message);
+            }
+        }
+    }
+
+    /**
+     * 记录工具的首次调用耗时，用于对比启用与未启用预热时的首次调用延迟
+     *
+     * @param toolName 工具名称
+     * @param latencyMs 调用耗时
+     */
+    public static void recordCall(String toolName, long latencyMs) {
+        FIRST_CALLS.putIfAbsent(toolName, new FirstCall(latencyMs, state));
+    }
+
+    /**
+     * 是否已记录过该工具的调用
+     */
+    public static boolean hasRecorded(String toolName) {
+        return FIRST_CALLS.containsKey(toolName);
+    }
+
+    private static void run() {
+        // 绑定临时会话，工具函数在独立的演示文稿上执行
+        PresentationManager manager = PresentationManager.newSessionInstance();
+        PresentationManager.bind(manager);
+        manager.beginUse();
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                Map<String, Long> timings = round == 0 ? FIRST_ROUND_MS : LAST_ROUND_MS;
+                runRound(manager, timings);
+            }
+            state = WarmupState.COMPLETED;
+            LOGGER.info("预热完成，耗时" + (System.currentTimeMillis() - startTime) + "ms");
+        } catch (Throwable e) {
+            error = e.getMessage();
+            state = WarmupState.FAILED;
+            LOGGER.log(Level.WARNING, "预热失败", e);
+        } finally {
+            endTime = System.currentTimeMillis();
+            manager.endUse();
+            manager.dispose();
+            PresentationManager.bind(null);
+        }
+    }
+
+    private static void runRound(PresentationManager manager, Map<String, Long> timings) throws Exception {
+        long t = System.nanoTime();
+        manager.createPresentation();
+        int slideIndex = SlideTools.addSlide("BLANK");
+        BackgroundTools.setBackgroundColor("#F0F0F0", slideIndex);
+        t = record(timings, "createPresentation", t);
+
+        AddTextBoxResult textBox = TextTools.addTextBox(50, 50, 600, 80, null, "#333333", 1, slideIndex);
+        List<Map<String, Object>> text = new ArrayList<>();
+        text.add(new LinkedHashMap<>(Map.of("text", "预热", "fontName", "Arial", "fontSize", 32.0,
+            "bold", true, "color", "#333333")));
+        text.add(new LinkedHashMap<>(Map.of("text", "文本", "fontName", "Arial", "fontSize", 24.0,
+            "italic", true, "color", "#0066CC")));
+        TextTools.setFormattedText(textBox.getShapeIndex(), text, slideIndex);
+        t = record(timings, "text", t);
+
+        ShapeTools.addShape("RECTANGLE", 50, 150, 300, 100, "#E6F2FF", "#0066CC", 2, slideIndex);
+        ShapeTools.addLine(50, 300, 650, 300, "#999999", 1, slideIndex);
+        SvgTools.addSvgImage("<svg width='100' height='100'><circle cx='50' cy='50' r='40' fill='#FF9900'/></svg>",
+            400, 150, 100, 100, slideIndex);
+        t = record(timings, "shape", t);
+
+        List<String> categories = List.of("Q1", "Q2", "Q3", "Q4");
+        List<SeriesData> series = List.of(
+            SeriesData.builder().name("A").values(List.of(1.0, 3.0, 2.0, 4.0)).color("#4472C4").build(),
+            SeriesData.builder().name("B").values(List.of(2.0, 1.0, 4.0, 3.0)).color("#ED7D31").build());
+        ChartParams chartParams = ChartParams.builder().x(50).y(320).width(400).height(250).title("预热").build();
+        for (ChartTypeEnum type : List.of(ChartTypeEnum.COLUMN, ChartTypeEnum.LINE, ChartTypeEnum.PIE)) {
+            ChartTools.createChart(type, chartParams, categories, series, slideIndex);
+        }
+        t = record(timings, "chart", t);
+
+        TableTools.addTable(List.of(List.of("名称", "数值"), List.of("A", "1"), List.of("B", "2")),
+            TableParams.builder().x(500).y(320).width(300).height(120).headerRow(true)
+                .headerColor("#1F4E79").headerTextColor("#FFFFFF").zebraColor("#F2F2F2").build(),
+            slideIndex);
+        t = record(timings, "table", t);
+
+        Presentation pres = manager.getPresentation();
+        pres.save(new ByteArrayOutputStream(), SaveFormat.Pptx);
+        t = record(timings, "savePptx", t);
+
+        pres.save(new ByteArrayOutputStream(), SaveFormat.Pdf);
+        record(timings, "savePdf", t);
+    }
+
+    private static long record(Map<String, Long> timings, String step, long startNanos) {
+        long now = System.nanoTime();
+        timings.put(step, (now - startNanos) / 1_000_000);
+        return now;
+    }
+}